@@ -0,0 +1,24 @@
+package io.github.mschonaker.bundler.benchmarks;
+
+import java.util.List;
+
+public interface BenchmarkDao {
+
+	/**
+	 * Creates and fills the tables, with {@link Database#ROWS} users.
+	 */
+	void createTables();
+
+	User findUser(long id);
+
+	List<User> findNarrow();
+
+	List<Wide> findWide();
+
+	List<Node> findNested();
+
+	List<User> findUsersWithRoles(int limit);
+
+	List<User> findUsersWithRolesJoined(int limit);
+
+}
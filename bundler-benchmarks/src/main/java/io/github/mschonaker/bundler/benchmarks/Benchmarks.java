@@ -0,0 +1,31 @@
+package io.github.mschonaker.bundler.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks matching the arguments, all of them by default,
+ * reporting throughput and, with the GC profiler, allocation rate.
+ */
+public final class Benchmarks {
+
+	private Benchmarks() {
+	}
+
+	public static void main(String[] args) throws Exception {
+
+		OptionsBuilder builder = new OptionsBuilder();
+
+		if (args.length == 0)
+			builder.include(Benchmarks.class.getPackage().getName() + ".*");
+
+		for (String arg : args)
+			builder.include(arg);
+
+		Options options = builder.addProfiler(GCProfiler.class).build();
+
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,66 @@
+package io.github.mschonaker.bundler.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.mschonaker.bundler.Bundler;
+import io.github.mschonaker.bundler.Transaction;
+
+/**
+ * Users with their roles: a child query per user (N+1) against a batched
+ * child with a join attribute.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChildrenBenchmark {
+
+	@Param({ "10", "100", "1000" })
+	public int users;
+
+	private DataSource ds;
+	private BenchmarkDao dao;
+	private Transaction tx;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		ds = Database.create();
+		dao = Bundler.inflate(BenchmarkDao.class);
+		tx = Bundler.readTransaction(ds);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		tx.close();
+		Database.drop(ds);
+	}
+
+	@Benchmark
+	public List<User> perRow() {
+		return dao.findUsersWithRoles(users);
+	}
+
+	@Benchmark
+	public List<User> joined() {
+		return dao.findUsersWithRolesJoined(users);
+	}
+}
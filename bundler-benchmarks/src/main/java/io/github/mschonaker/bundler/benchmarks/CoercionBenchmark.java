@@ -0,0 +1,62 @@
+package io.github.mschonaker.bundler.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.mschonaker.bundler.utils.Coercer;
+import io.github.mschonaker.bundler.utils.Coercions;
+
+/**
+ * {@link Coercions#coerce(Object, Class)}: identity, a registered coercer and
+ * a coercer found through the superclass. Then the lookup of a coercer found
+ * through the superclass without memoization, and the memoized lookup of a
+ * pair with no coercer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CoercionBenchmark {
+
+	private final Coercions coercions = Coercions.JRE;
+
+	private Object string = "value";
+	private Object number = "42";
+	private Object integer = Integer.valueOf(1);
+
+	@Benchmark
+	public Object identity() {
+		return coercions.coerce(string, String.class);
+	}
+
+	@Benchmark
+	public Object hit() {
+		return coercions.coerce(number, Integer.class);
+	}
+
+	@Benchmark
+	public Object hitBySuperclass() {
+		return coercions.coerce(integer, Boolean.class);
+	}
+
+	@Benchmark
+	public Coercer<Integer, Boolean> findUnmemoized() {
+		return coercions.find(Integer.class, Boolean.class);
+	}
+
+	@Benchmark
+	public Coercer<Integer, Thread> resolveNone() {
+		return coercions.resolve(Integer.class, Thread.class);
+	}
+}
@@ -0,0 +1,57 @@
+package io.github.mschonaker.bundler.benchmarks;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+
+import io.github.mschonaker.bundler.Bundler;
+import io.github.mschonaker.bundler.Transaction;
+
+/**
+ * The H2 in-memory database shared by the benchmarks.
+ */
+public final class Database {
+
+	/**
+	 * The rows of the users and wide tables. Every tenth user is also an
+	 * admin.
+	 */
+	public static final int ROWS = 1000;
+
+	private Database() {
+	}
+
+	/**
+	 * Creates a new database, with its tables filled.
+	 */
+	public static DataSource create() throws IOException {
+
+		JdbcDataSource dataSource = new JdbcDataSource();
+
+		dataSource.setURL("jdbc:h2:mem:benchmarks" + System.nanoTime() + ";DB_CLOSE_DELAY=-1;MODE=MySQL");
+		dataSource.setUser("sa");
+		dataSource.setPassword("");
+
+		BenchmarkDao dao = Bundler.inflate(BenchmarkDao.class);
+
+		try (Transaction tx = Bundler.writeTransaction(dataSource)) {
+			dao.createTables();
+			tx.success();
+		}
+
+		return dataSource;
+	}
+
+	/**
+	 * Drops the database.
+	 */
+	public static void drop(DataSource ds) throws SQLException {
+		try (Connection connection = ds.getConnection()) {
+			connection.createStatement().execute("drop all objects delete files");
+		}
+	}
+}
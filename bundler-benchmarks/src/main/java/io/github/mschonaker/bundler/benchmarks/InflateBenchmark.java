@@ -0,0 +1,44 @@
+package io.github.mschonaker.bundler.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.mschonaker.bundler.Bundler;
+import io.github.mschonaker.bundler.Config;
+
+/**
+ * Inflating an interface with many methods: with the shared bundles, and
+ * parsing its XML each time.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InflateBenchmark {
+
+	@Benchmark
+	public LargeDao inflate() throws IOException {
+		return Bundler.inflate(LargeDao.class);
+	}
+
+	@Benchmark
+	public LargeDao inflateParsing() throws IOException {
+
+		try (InputStream in = LargeDao.class.getResourceAsStream("LargeDao-bundler.xml")) {
+			return Bundler.inflate(LargeDao.class, new Config().load(in));
+		}
+	}
+}
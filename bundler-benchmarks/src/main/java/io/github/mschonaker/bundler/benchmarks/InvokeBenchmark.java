@@ -0,0 +1,115 @@
+package io.github.mschonaker.bundler.benchmarks;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.mschonaker.bundler.Bundler;
+import io.github.mschonaker.bundler.Config;
+import io.github.mschonaker.bundler.Transaction;
+
+/**
+ * The per-call overhead of a DAO method looking up one row by its primary
+ * key, against the same lookup with hand-written JDBC.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class InvokeBenchmark {
+
+	private static final String SQL = "select id, name, email from users where id = ?";
+
+	private DataSource ds;
+	private BenchmarkDao dao;
+	private BenchmarkDao cachingDao;
+	private Transaction tx;
+	private Connection connection;
+	private PreparedStatement prepared;
+	private long id;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+
+		ds = Database.create();
+
+		dao = Bundler.inflate(BenchmarkDao.class);
+		cachingDao = Bundler.inflate(BenchmarkDao.class, new Config().statementCacheSize(16));
+
+		// Transactions are bound to the thread, which runs the benchmark.
+		tx = Bundler.readTransaction(ds);
+
+		connection = ds.getConnection();
+		prepared = connection.prepareStatement(SQL);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		prepared.close();
+		connection.close();
+		tx.close();
+		Database.drop(ds);
+	}
+
+	private long nextId() {
+		return id = id % Database.ROWS + 1;
+	}
+
+	@Benchmark
+	public User bundler() {
+		return dao.findUser(nextId());
+	}
+
+	@Benchmark
+	public User bundlerStatementCache() {
+		return cachingDao.findUser(nextId());
+	}
+
+	@Benchmark
+	public User jdbc() throws SQLException {
+		try (PreparedStatement ps = connection.prepareStatement(SQL)) {
+			return find(ps, nextId());
+		}
+	}
+
+	@Benchmark
+	public User jdbcPrepared() throws SQLException {
+		return find(prepared, nextId());
+	}
+
+	private static User find(PreparedStatement ps, long id) throws SQLException {
+
+		ps.setLong(1, id);
+
+		try (ResultSet rs = ps.executeQuery()) {
+
+			if (!rs.next())
+				return null;
+
+			User user = new User();
+			user.setId(rs.getLong(1));
+			user.setName(rs.getString(2));
+			user.setEmail(rs.getString(3));
+			return user;
+		}
+	}
+}
@@ -0,0 +1,137 @@
+package io.github.mschonaker.bundler.benchmarks;
+
+import java.util.List;
+
+/**
+ * An interface with many methods, for inflating.
+ */
+public interface LargeDao {
+
+	List<User> find00(long id);
+
+	int update01(User user);
+
+	List<User> find02(long id);
+
+	int update03(User user);
+
+	List<User> find04(long id);
+
+	int update05(User user);
+
+	List<User> find06(long id);
+
+	int update07(User user);
+
+	List<User> find08(long id);
+
+	int update09(User user);
+
+	List<User> find10(long id);
+
+	int update11(User user);
+
+	List<User> find12(long id);
+
+	int update13(User user);
+
+	List<User> find14(long id);
+
+	int update15(User user);
+
+	List<User> find16(long id);
+
+	int update17(User user);
+
+	List<User> find18(long id);
+
+	int update19(User user);
+
+	List<User> find20(long id);
+
+	int update21(User user);
+
+	List<User> find22(long id);
+
+	int update23(User user);
+
+	List<User> find24(long id);
+
+	int update25(User user);
+
+	List<User> find26(long id);
+
+	int update27(User user);
+
+	List<User> find28(long id);
+
+	int update29(User user);
+
+	List<User> find30(long id);
+
+	int update31(User user);
+
+	List<User> find32(long id);
+
+	int update33(User user);
+
+	List<User> find34(long id);
+
+	int update35(User user);
+
+	List<User> find36(long id);
+
+	int update37(User user);
+
+	List<User> find38(long id);
+
+	int update39(User user);
+
+	List<User> find40(long id);
+
+	int update41(User user);
+
+	List<User> find42(long id);
+
+	int update43(User user);
+
+	List<User> find44(long id);
+
+	int update45(User user);
+
+	List<User> find46(long id);
+
+	int update47(User user);
+
+	List<User> find48(long id);
+
+	int update49(User user);
+
+	List<User> find50(long id);
+
+	int update51(User user);
+
+	List<User> find52(long id);
+
+	int update53(User user);
+
+	List<User> find54(long id);
+
+	int update55(User user);
+
+	List<User> find56(long id);
+
+	int update57(User user);
+
+	List<User> find58(long id);
+
+	int update59(User user);
+
+	List<User> find60(long id);
+
+	int update61(User user);
+
+	List<User> find62(long id);
+
+	int update63(User user);
+}
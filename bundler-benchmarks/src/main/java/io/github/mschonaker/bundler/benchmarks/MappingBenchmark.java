@@ -0,0 +1,94 @@
+package io.github.mschonaker.bundler.benchmarks;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.mschonaker.bundler.Bundler;
+import io.github.mschonaker.bundler.Transaction;
+
+/**
+ * Mapping {@link Database#ROWS} rows: narrow (two columns), wide (twenty
+ * columns) and nested ({@code sub.sub.id}), plus the narrow ones with
+ * hand-written JDBC.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MappingBenchmark {
+
+	private DataSource ds;
+	private BenchmarkDao dao;
+	private Transaction tx;
+	private Connection connection;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		ds = Database.create();
+		dao = Bundler.inflate(BenchmarkDao.class);
+		tx = Bundler.readTransaction(ds);
+		connection = ds.getConnection();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws Exception {
+		connection.close();
+		tx.close();
+		Database.drop(ds);
+	}
+
+	@Benchmark
+	public List<User> narrow() {
+		return dao.findNarrow();
+	}
+
+	@Benchmark
+	public List<User> narrowJdbc() throws SQLException {
+
+		try (PreparedStatement ps = connection.prepareStatement("select id, name from users order by id");
+				ResultSet rs = ps.executeQuery()) {
+
+			List<User> users = new ArrayList<>();
+			while (rs.next()) {
+				User user = new User();
+				user.setId(rs.getLong(1));
+				user.setName(rs.getString(2));
+				users.add(user);
+			}
+
+			return users;
+		}
+	}
+
+	@Benchmark
+	public List<Wide> wide() {
+		return dao.findWide();
+	}
+
+	@Benchmark
+	public List<Node> nested() {
+		return dao.findNested();
+	}
+}
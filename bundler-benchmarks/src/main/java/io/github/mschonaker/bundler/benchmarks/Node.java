@@ -0,0 +1,26 @@
+package io.github.mschonaker.bundler.benchmarks;
+
+/**
+ * A bean for nested mappings, like {@code sub.sub.id}.
+ */
+public class Node {
+
+	private Long id;
+	private Node sub;
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public Node getSub() {
+		return sub;
+	}
+
+	public void setSub(Node sub) {
+		this.sub = sub;
+	}
+}
@@ -0,0 +1,185 @@
+package io.github.mschonaker.bundler.benchmarks;
+
+public class Wide {
+
+	private Long id;
+	private String c01;
+	private String c02;
+	private String c03;
+	private String c04;
+	private String c05;
+	private String c06;
+	private String c07;
+	private String c08;
+	private String c09;
+	private String c10;
+	private String c11;
+	private String c12;
+	private String c13;
+	private String c14;
+	private String c15;
+	private String c16;
+	private String c17;
+	private String c18;
+	private String c19;
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getC01() {
+		return c01;
+	}
+
+	public void setC01(String c01) {
+		this.c01 = c01;
+	}
+
+	public String getC02() {
+		return c02;
+	}
+
+	public void setC02(String c02) {
+		this.c02 = c02;
+	}
+
+	public String getC03() {
+		return c03;
+	}
+
+	public void setC03(String c03) {
+		this.c03 = c03;
+	}
+
+	public String getC04() {
+		return c04;
+	}
+
+	public void setC04(String c04) {
+		this.c04 = c04;
+	}
+
+	public String getC05() {
+		return c05;
+	}
+
+	public void setC05(String c05) {
+		this.c05 = c05;
+	}
+
+	public String getC06() {
+		return c06;
+	}
+
+	public void setC06(String c06) {
+		this.c06 = c06;
+	}
+
+	public String getC07() {
+		return c07;
+	}
+
+	public void setC07(String c07) {
+		this.c07 = c07;
+	}
+
+	public String getC08() {
+		return c08;
+	}
+
+	public void setC08(String c08) {
+		this.c08 = c08;
+	}
+
+	public String getC09() {
+		return c09;
+	}
+
+	public void setC09(String c09) {
+		this.c09 = c09;
+	}
+
+	public String getC10() {
+		return c10;
+	}
+
+	public void setC10(String c10) {
+		this.c10 = c10;
+	}
+
+	public String getC11() {
+		return c11;
+	}
+
+	public void setC11(String c11) {
+		this.c11 = c11;
+	}
+
+	public String getC12() {
+		return c12;
+	}
+
+	public void setC12(String c12) {
+		this.c12 = c12;
+	}
+
+	public String getC13() {
+		return c13;
+	}
+
+	public void setC13(String c13) {
+		this.c13 = c13;
+	}
+
+	public String getC14() {
+		return c14;
+	}
+
+	public void setC14(String c14) {
+		this.c14 = c14;
+	}
+
+	public String getC15() {
+		return c15;
+	}
+
+	public void setC15(String c15) {
+		this.c15 = c15;
+	}
+
+	public String getC16() {
+		return c16;
+	}
+
+	public void setC16(String c16) {
+		this.c16 = c16;
+	}
+
+	public String getC17() {
+		return c17;
+	}
+
+	public void setC17(String c17) {
+		this.c17 = c17;
+	}
+
+	public String getC18() {
+		return c18;
+	}
+
+	public void setC18(String c18) {
+		this.c18 = c18;
+	}
+
+	public String getC19() {
+		return c19;
+	}
+
+	public void setC19(String c19) {
+		this.c19 = c19;
+	}
+}
@@ -0,0 +1,144 @@
+package io.github.mschonaker.bundler;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import io.github.mschonaker.bundler.loader.Bundle;
+import io.github.mschonaker.bundler.loader.BundleCatalog;
+import io.github.mschonaker.bundler.loader.BundleLoader;
+
+/**
+ * The bundles of each interface, parsed once from its {@code -bundler.xml}
+ * resource, or read from its {@code -bundler.bin} catalog if precompiled, and
+ * shared by every inflate and configuration loading it, along with the row
+ * mapping plans compiled into them. Scoped to the interface, so they're
+ * collected with its class loader.
+ *
+ * @author mschonaker
+ */
+final class BundleRegistry {
+
+	private static final ClassValue<Map<String, Bundle>> BUNDLES = new ClassValue<Map<String, Bundle>>() {
+		@Override
+		protected Map<String, Bundle> computeValue(Class<?> type) {
+			try {
+				Map<String, Bundle> bundles = parse(type);
+				bundles.values().forEach(BundleRegistry::seal);
+				return Collections.unmodifiableMap(bundles);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	};
+
+	private BundleRegistry() {
+	}
+
+	/**
+	 * Returns the bundles of the interface. They must not be modified: to
+	 * replace some of them, copy the map.
+	 */
+	static Map<String, Bundle> get(Class<?> type) throws IOException {
+		try {
+			return BUNDLES.get(type);
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Makes the children of the bundle unmodifiable, as it's shared. The state
+	 * learned at runtime, like the row mapping plans, is still shared by every
+	 * inflate.
+	 */
+	private static void seal(Bundle bundle) {
+
+		if (bundle.children == null)
+			return;
+
+		bundle.children = Collections.unmodifiableMap(bundle.children);
+		bundle.children.values().forEach(BundleRegistry::seal);
+	}
+
+	private static Map<String, Bundle> parse(Class<?> type) throws IOException {
+
+		String name = type.getName().replace('.', '/') + "-bundler";
+
+		Map<String, Bundle> bundles = new LinkedHashMap<>();
+
+		URL xml = type.getClassLoader().getResource(name + ".xml");
+		byte[] source = xml == null ? null : read(xml);
+
+		// The precompiled catalog, if any, compiled by this version and from
+		// this very XML, when shipped along.
+		URL catalog = type.getClassLoader().getResource(name + BundleCatalog.EXTENSION);
+		if (catalog != null) {
+
+			ByteBuffer buffer = map(catalog);
+
+			if (source == null ? BundleCatalog.read(bundles, buffer)
+					: BundleCatalog.read(bundles, buffer, BundleCatalog.checksum(source)))
+				return bundles;
+		}
+
+		try {
+
+			if (source == null)
+				throw new FileNotFoundException("Unble to locate resource " + name + ".xml");
+
+			BundleLoader.load(bundles, new BufferedReader(
+					new InputStreamReader(new ByteArrayInputStream(source), StandardCharsets.UTF_8)));
+
+		} catch (IOException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IOException(e);
+		}
+
+		return bundles;
+	}
+
+	/**
+	 * Maps the resource into memory when it's a file, or reads it otherwise.
+	 */
+	private static ByteBuffer map(URL url) throws IOException {
+
+		if ("file".equals(url.getProtocol()))
+			try (FileChannel channel = FileChannel.open(Paths.get(url.toURI()), StandardOpenOption.READ)) {
+				return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			} catch (URISyntaxException e) {
+				// Read below.
+			}
+
+		return ByteBuffer.wrap(read(url));
+	}
+
+	private static byte[] read(URL url) throws IOException {
+
+		try (InputStream in = url.openStream()) {
+
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			for (int read; (read = in.read(buffer)) >= 0;)
+				out.write(buffer, 0, read);
+
+			return out.toByteArray();
+		}
+	}
+}
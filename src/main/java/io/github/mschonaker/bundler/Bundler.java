@@ -1,5 +1,6 @@
 package io.github.mschonaker.bundler;
 
+import java.beans.IntrospectionException;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.lang.reflect.InvocationHandler;
@@ -11,20 +12,41 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
 import java.sql.Statement;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import javax.sql.DataSource;
 
 import io.github.mschonaker.bundler.loader.Bundle;
+import io.github.mschonaker.bundler.loader.Expression;
 import io.github.mschonaker.bundler.utils.Beans;
 import io.github.mschonaker.bundler.utils.Methods;
+import io.github.mschonaker.bundler.utils.ResultCache;
+import io.github.mschonaker.bundler.utils.RowMapper;
+import io.github.mschonaker.bundler.utils.Signature;
 
 /**
  * A small API for Object-Relational mapping.
@@ -53,10 +75,9 @@ public class Bundler {
 		Bundle root = new Bundle();
 		Map<String, Bundle> bundles = config.bundles();
 
-		if (bundles == null) {
-			config.loadResource(type);
-			bundles = config.bundles();
-		}
+		// Unless configured, the bundles parsed from the resource are shared.
+		if (bundles == null)
+			bundles = BundleRegistry.get(type);
 
 		root.children = bundles;
 
@@ -64,7 +85,7 @@ public class Bundler {
 			validate(root, type);
 
 		return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
-				new BundlerInvocationHandler(root, config)));
+				new BundlerInvocationHandler(type, root, config)));
 	}
 
 	private static void validate(Bundle bundle, Class<?> type) {
@@ -93,34 +114,68 @@ public class Bundler {
 	// ---------------------------------------------------------------------
 	// Proxy methods.
 
+	/**
+	 * A method bound to its bundle, with its signature already inspected.
+	 */
+	private static class Plan {
+
+		final Bundle bundle;
+		final Signature signature;
+
+		Plan(Bundle bundle, Signature signature) {
+			this.bundle = bundle;
+			this.signature = signature;
+		}
+	}
+
 	private static class BundlerInvocationHandler implements InvocationHandler {
 
-		private final Bundle bundle;
+		private final Map<Method, Plan> plans = new HashMap<>();
 		private final Config config;
 
-		public BundlerInvocationHandler(Bundle bundle, Config config) {
-			this.bundle = bundle;
+		public BundlerInvocationHandler(Class<?> type, Bundle bundle, Config config) {
+
 			this.config = config;
+
+			for (Method method : type.getMethods()) {
+				Bundle localBundle = bundle.children.get(method.getName());
+				if (localBundle == null)
+					continue;
+
+				Signature signature = Signature.of(method);
+				if (localBundle.batch && !signature.isBatch)
+					throw new BundlerValidationException("Couldn't map instance of class " + type + ". Method " + method
+							+ " isn't a batch: it needs an Iterable first parameter, and to return nothing, int[] or"
+							+ " a List of keys.");
+
+				Class<?> returned = signature.returnsList ? signature.component : signature.returnType;
+				if (localBundle.cacheSize > 0 && RowMapper.isStreamed(returned))
+					throw new BundlerValidationException("Couldn't map instance of class " + type + ". Method " + method
+							+ " is cached, so it can't return streams nor large objects.");
+
+				plans.put(method, new Plan(localBundle, signature));
+			}
 		}
 
 		@Override
 		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
 
-			Bundle localBundle = bundle.children.get(method.getName());
+			Plan plan = plans.get(method);
 
-			if (localBundle == null)
+			if (plan == null)
 				throw new IllegalStateException("Bundle not for method: " + method);
 
+			if (plan.signature.future != null)
+				return submit(plan, args);
+
 			try {
 
 				CurrentTransaction tx = locateTransaction();
 
-				ParamContext params = new ParamContext();
-				params.set("params", args);
-				if (args != null && args.length > 0)
-					params.set("param", args[0]);
-
-				return execute(tx, localBundle, config, method, params, null);
+				// Transactions may be joined by other threads.
+				synchronized (tx) {
+					return call(tx, plan, plan.signature, args);
+				}
 
 			} catch (Throwable t) {
 
@@ -131,88 +186,1002 @@ public class Bundler {
 
 			}
 		}
+
+		/**
+		 * Executes the bundle, or reads its results from its cache, unless the
+		 * transaction has written any of the tables they're read from.
+		 */
+		private Object call(CurrentTransaction tx, Plan plan, Signature signature, Object[] args) throws Exception {
+
+			ResultCache cache = plan.bundle.results();
+
+			if (cache == null || signature.returnsCursor || isBatch(plan.bundle, signature)
+					|| tx.invalidates(plan.bundle.tables))
+				return execute(tx, plan.bundle, config, signature, new ParamContext(args), null);
+
+			return cache.get(tx.dataSource, config, args, tx.started, () -> {
+				tx.caching++;
+				try {
+					return execute(tx, plan.bundle, config, signature, new ParamContext(args), null);
+				} finally {
+					tx.caching--;
+				}
+			});
+		}
+
+		/**
+		 * Executes the bundle on the executor, within its own read transaction.
+		 */
+		private CompletableFuture<Object> submit(Plan plan, Object[] args) {
+
+			CompletableFuture<Object> future = new CompletableFuture<>();
+
+			Runnable task = () -> {
+				try {
+
+					if (plan.signature.future.returnsCursor)
+						throw new IllegalArgumentException("Cursors can't be completed asynchronously: " + plan.signature);
+
+					DataSource ds = config.dataSource();
+					if (ds == null)
+						throw new IllegalStateException("A DataSource must be configured for " + plan.signature);
+
+					// Completed once the connection is released.
+					Object value;
+					try (Transaction tx = readTransaction(ds)) {
+						((CurrentTransaction) tx).detached = true;
+						value = call((CurrentTransaction) tx, plan, plan.signature.future, args);
+					}
+
+					future.complete(value);
+
+				} catch (Throwable t) {
+					future.completeExceptionally(t instanceof BundlerSQLException ? t : new BundlerSQLException(t));
+				}
+			};
+
+			try {
+				config.executor().execute(task);
+			} catch (RejectedExecutionException e) {
+				future.completeExceptionally(new BundlerSQLException(e));
+			}
+
+			return future;
+		}
 	}
 
 	// ---------------------------------------------------------------------
 	// Database.
 
-	private static Object execute(CurrentTransaction transaction, Bundle bundle, Config config, Method method,
+	private static Object execute(CurrentTransaction transaction, Bundle bundle, Config config, Signature signature,
 			ParamContext params, Object currentValue) throws Exception {
 
+		if (bundle.invalidates != null)
+			transaction.invalidate(bundle.invalidates);
+
+		if (!config.hasListeners())
+			return execute(transaction, bundle, config, signature, params, currentValue, null);
+
+		Execution execution = new Execution(bundle, signature.method);
+
+		try {
+			return execute(transaction, bundle, config, signature, params, currentValue, execution);
+		} catch (Exception e) {
+			execution.failure = e;
+			throw e;
+		} finally {
+			if (!execution.deferred)
+				config.executed(execution);
+		}
+	}
+
+	private static Object execute(CurrentTransaction transaction, Bundle bundle, Config config, Signature signature,
+			ParamContext params, Object currentValue, Execution execution) throws Exception {
+
 		// Special case: no root sql.
 		if (bundle.sql == null) {
 
 			if (bundle.children == null)
 				return null;
 
-			if (Methods.returnsList(method) || Methods.returnsPrimitive(method))
+			if (signature.returnsList || signature.returnsPrimitive)
 				throw new IllegalArgumentException();
 
 			Object object = currentValue;
 			if (object == null)
-				object = method.getReturnType().newInstance();
+				object = signature.returnType.newInstance();
 
-			for (Bundle sub : bundle.children.values()) {
+			if (bundle.parallel)
+				executeParallel(transaction, bundle, config, signature, params, object);
+			else if (!bundle.multi || !executeMulti(transaction, bundle, config, signature, params, object, execution))
+				for (Bundle sub : bundle.children.values()) {
 
-				Object value = execute(transaction, sub, config, Beans.getReadMethod(sub.name, method.getReturnType()),
-						params, Beans.getNestedProperty(object, sub.name, config.isLenient()));
+					if (sub.joinProperty != null)
+						continue;
 
-				Beans.setNestedProperty(object, sub.name, value, config.isLenient(), config.coercions());
-			}
+					Object value = execute(transaction, sub, config, signatureOf(sub, signature.returnType), params,
+							Beans.getNestedProperty(object, sub.name, config.isLenient()));
+
+					Beans.setNestedProperty(object, sub.name, value, config.isLenient(), config.coercions());
+				}
+
+			if (hasJoinedChildren(bundle))
+				executeJoined(transaction, bundle, config, Collections.singletonList(object), params);
+
+			if (execution != null)
+				execution.lap(Execution.Phase.CHILDREN);
 
 			return object;
 		}
 
-		boolean isReturning = !Methods.returnsVoid(method);
+		if (signature.returnsPage || bundle.keyset != null)
+			return executePage(transaction, bundle, config, signature, params, execution);
 
-		try (PreparedStatement ps = transaction.connection.prepareStatement(bundle.sql, //
-				isReturning ? Statement.RETURN_GENERATED_KEYS : Statement.NO_GENERATED_KEYS)) {
+		if (signature.returnsCursor)
+			return executeCursor(transaction, bundle, config, signature, params, execution);
+
+		if (isBatch(bundle, signature))
+			return executeBatch(transaction, bundle, config, signature, params, execution);
+
+		boolean isReturning = !signature.returnsVoid;
+		Bundle.Kind kind = bundle.kind;
+
+		List<Object> parents = hasJoinedChildren(bundle) ? new ArrayList<>() : null;
+		Object value;
+
+		// Generated keys are only asked for updates, or until the bundle is known.
+		try (StatementCache.Lease lease = transaction.prepare(bundle.sql,
+				isReturning && kind != Bundle.Kind.QUERY ? Statement.RETURN_GENERATED_KEYS : Statement.NO_GENERATED_KEYS,
+				config)) {
+
+			PreparedStatement ps = lease.ps;
+
+			if (execution != null)
+				execution.lap(Execution.Phase.PREPARE);
 
 			// Parameters.
-			if (bundle.expressions != null) {
-				int i = 1;
-				for (String parameterExpression : bundle.expressions) {
-					ps.setObject(i, params.get(parameterExpression));
-					i++;
-				}
-			}
+			tune(ps, bundle);
+			bind(ps, bundle, params, execution);
+
+			if (execution != null)
+				execution.lap(Execution.Phase.BIND);
 
 			// Execution.
-			boolean isQuery = ps.execute();
+			ResultSet query;
+			int updateCount;
+			switch (kind) {
+			case QUERY:
+				query = ps.executeQuery();
+				updateCount = -1;
+				break;
+			case UPDATE:
+				updateCount = ps.executeUpdate();
+				query = null;
+				break;
+			default:
+				query = ps.execute() ? ps.getResultSet() : null;
+				updateCount = query != null ? -1 : ps.getUpdateCount();
+				bundle.kind = query != null ? Bundle.Kind.QUERY : Bundle.Kind.UPDATE;
+			}
+
+			if (execution != null) {
+				execution.lap(Execution.Phase.EXECUTE);
+				execution.updateCount = updateCount;
+			}
 
 			// Results.
-			if (!isReturning)
-				return null;
+			try (ResultSet rs = query != null ? query : isReturning ? ps.getGeneratedKeys() : null) {
 
-			try (ResultSet rs = isQuery ? ps.getResultSet() : ps.getGeneratedKeys()) {
+				if (!isReturning)
+					return null;
 
-				Result result = new Result(rs, config);
+				Result result = new Result(rs, bundle, config, transaction.lobs(), transaction.caching > 0);
 
-				Result.OnEach onEach = new Result.OnEach() {
+				value = result.toReturnTypeOf(signature,
+						children(transaction, bundle, config, params, parents, execution), currentValue);
 
-					@Override
-					public Object onEach(Class<?> type, Object object) throws Exception {
+				if (execution != null) {
+					execution.lap(Execution.Phase.MAP);
+					if (query != null)
+						execution.rows = result.rows();
+					else
+						execution.generatedKeys = result.rows();
+				}
+			}
+		}
 
-						if (bundle.children != null)
-							for (Bundle sub : bundle.children.values()) {
+		if (parents != null && !parents.isEmpty()) {
 
-								params.set("parent", object);
+			executeJoined(transaction, bundle, config, parents, params);
 
-								Object value = execute(transaction, sub, config, Beans.getReadMethod(sub.name, type),
-										params, Beans.getNestedProperty(object, sub.name, config.isLenient()));
+			if (execution != null)
+				execution.lap(Execution.Phase.CHILDREN);
+		}
 
-								Beans.setNestedProperty(object, sub.name, value, config.isLenient(),
-										config.coercions());
-							}
+		return value;
+	}
+
+	/**
+	 * Applies the bundle fetch size and max rows, if any.
+	 */
+	private static void tune(PreparedStatement ps, Bundle bundle) throws SQLException {
+
+		int fetchSize = bundle.fetchSizeHint();
+		if (fetchSize > 0)
+			ps.setFetchSize(fetchSize);
+
+		if (bundle.maxRows > 0)
+			ps.setMaxRows(bundle.maxRows);
+	}
+
+	/**
+	 * Binds the parameters, keeping their values for the listeners, if any.
+	 */
+	private static void bind(PreparedStatement ps, Bundle bundle, ParamContext params, Execution execution)
+			throws SQLException {
+
+		if (bundle.parameters == null)
+			return;
+
+		Object[] values = execution == null ? null : new Object[bundle.parameters.length];
+
+		for (int i = 0; i < bundle.parameters.length; i++) {
+
+			Object value = params.get(bundle.parameters[i]);
+			Lobs.bind(ps, i + 1, value);
+
+			if (values != null)
+				values[i] = value;
+		}
+
+		if (execution != null)
+			execution.values = values;
+	}
+
+	/**
+	 * Executes a page of a keyset paginated bundle, the first one unless the
+	 * token of the previous one is given.
+	 */
+	private static Page<Object> executePage(CurrentTransaction transaction, Bundle bundle, Config config,
+			Signature signature, ParamContext params, Execution execution) throws Exception {
+
+		if (bundle.keyset == null || !signature.returnsPage)
+			throw new IllegalArgumentException("Keyset paginated bundles return pages: " + signature);
+
+		Object token = bundle.after == null ? null : params.get(bundle.after);
+		Object[] after = token == null ? null : bundle.keyset.decode(token.toString());
+
+		Object size = bundle.pageSize == null ? null : params.get(bundle.pageSize);
+		int pageSize = size == null ? -1 : ((Number) size).intValue();
+
+		List<Object> parents = hasJoinedChildren(bundle) ? new ArrayList<>() : null;
+		Page<Object> page;
+
+		try (StatementCache.Lease lease = transaction.prepare(expandKeyset(bundle, after != null),
+				Statement.NO_GENERATED_KEYS, config)) {
+
+			PreparedStatement ps = lease.ps;
+
+			if (execution != null)
+				execution.lap(Execution.Phase.PREPARE);
+
+			tune(ps, bundle);
+
+			// Parameters.
+			Object[] values = execution == null ? null : new Object[bundle.parameters.length];
+
+			int i = 1;
+			for (int p = 0; p < bundle.parameters.length; p++) {
+
+				Expression parameter = bundle.parameters[p];
+
+				Object value;
+				if (parameter.isKeyset()) {
+					if (after != null)
+						for (int k : bundle.keyset.binds)
+							ps.setObject(i++, after[k]);
+					value = token;
+				} else
+					Lobs.bind(ps, i++, value = params.get(parameter));
+
+				if (values != null)
+					values[p] = value;
+			}
+
+			if (execution != null) {
+				execution.values = values;
+				execution.lap(Execution.Phase.BIND);
+			}
+
+			try (ResultSet rs = ps.executeQuery()) {
+
+				if (execution != null)
+					execution.lap(Execution.Phase.EXECUTE);
+
+				Result result = new Result(rs, bundle, config, transaction.lobs(), transaction.caching > 0);
+
+				page = result.asPageOf(signature, bundle.keyset, pageSize,
+						children(transaction, bundle, config, params, parents, execution));
+
+				if (execution != null) {
+					execution.lap(Execution.Phase.MAP);
+					execution.rows = result.rows();
+				}
+			}
+		}
+
+		if (parents != null && !parents.isEmpty()) {
+
+			executeJoined(transaction, bundle, config, parents, params);
+
+			if (execution != null)
+				execution.lap(Execution.Phase.CHILDREN);
+		}
+
+		return page;
+	}
+
+	/**
+	 * Expands the ${keyset} placeholder to the predicate after the previous
+	 * page, or to one always true for the first page.
+	 */
+	private static String expandKeyset(Bundle bundle, boolean after) {
+
+		StringBuilder sb = new StringBuilder(bundle.sql.length() + bundle.keyset.predicate.length());
+
+		int last = 0;
+		for (int i = 0; i < bundle.parameters.length; i++) {
+
+			if (!bundle.parameters[i].isKeyset())
+				continue;
+
+			int at = bundle.placeholders[i];
+			sb.append(bundle.sql, last, at).append(after ? bundle.keyset.predicate : "1 = 1");
+			last = at + 1;
+		}
+
+		sb.append(bundle.sql, last, bundle.sql.length());
+
+		return sb.toString();
+	}
+
+	/**
+	 * Executes a query for a method returning a {@link Stream} or an
+	 * {@link Iterator}, or taking a {@link Consumer}. Rows are mapped one at a
+	 * time, as they're consumed, and children run per row.
+	 */
+	private static Object executeCursor(CurrentTransaction transaction, Bundle bundle, Config config,
+			Signature signature, ParamContext params, Execution execution) throws Exception {
+
+		int consumer = signature.consumerParameter;
+		Class<?> type = signature.cursorType;
+
+		Result.OnEach children = children(transaction, bundle, config, params, null, execution);
+		Result.OnEach onEach = !hasJoinedChildren(bundle) ? children : (t, object) -> {
+
+			children.onEach(t, object);
+
+			long start = execution == null ? 0 : System.nanoTime();
+
+			executeJoined(transaction, bundle, config, Collections.singletonList(object), params);
+
+			if (execution != null)
+				execution.move(Execution.Phase.CHILDREN, System.nanoTime() - start);
+
+			return object;
+		};
+
+		StatementCache.Lease lease = transaction.prepare(bundle.sql, Statement.NO_GENERATED_KEYS, config);
+
+		Cursor cursor;
+		try {
+
+			if (execution != null)
+				execution.lap(Execution.Phase.PREPARE);
+
+			tune(lease.ps, bundle);
+			bind(lease.ps, bundle, params, execution);
+
+			if (execution != null)
+				execution.lap(Execution.Phase.BIND);
+
+			ResultSet rs = lease.ps.executeQuery();
+
+			if (execution != null)
+				execution.lap(Execution.Phase.EXECUTE);
+
+			// The large objects of each row are freed by the cursor.
+			List<Object> lobs = new ArrayList<>();
+			cursor = new Cursor(lease, rs, new Result(rs, bundle, config, lobs, false), lobs, type,
+					signature.isCursorScalar, onEach, transaction.cursors, config, execution);
+
+		} catch (Exception e) {
+			lease.close();
+			throw e;
+		}
+
+		// Reported by the cursor when closed.
+		if (execution != null)
+			execution.deferred = true;
+
+		if (consumer >= 0) {
+
+			@SuppressWarnings("unchecked")
+			Consumer<Object> action = (Consumer<Object>) params.params[consumer];
+
+			try (Cursor c = cursor) {
+				while (c.hasNext())
+					action.accept(c.next());
+			}
+
+			return null;
+		}
+
+		if (signature.returnsIterator)
+			return cursor;
+
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(cursor, Spliterator.ORDERED), false)
+				.onClose(cursor::close);
+	}
+
+	/**
+	 * Tells whether the bundle is declared a batch, and the method shaped as
+	 * one. Otherwise, an {@link Iterable} argument is bound as a whole, and an
+	 * {@code int[]} returned is read from a column.
+	 */
+	private static boolean isBatch(Bundle bundle, Signature signature) {
+		return bundle.batch && signature.isBatch;
+	}
+
+	/**
+	 * Executes a write for each element of the {@link Iterable} first argument,
+	 * bound as {@code param}, with JDBC batches of {@link Config#batchSize(int)}
+	 * elements. Returns the update counts or the generated keys, if asked.
+	 */
+	private static Object executeBatch(CurrentTransaction transaction, Bundle bundle, Config config,
+			Signature signature, ParamContext params, Execution execution) throws Exception {
+
+		boolean isReturningKeys = signature.returnsList;
+		Class<?> type = isReturningKeys ? signature.component : null;
+
+		List<Object> keys = isReturningKeys ? new ArrayList<>() : null;
+		int[] counts = new int[0];
+
+		Iterable<?> elements = (Iterable<?>) params.param;
+		if (elements == null)
+			elements = Collections.emptyList();
+
+		try (StatementCache.Lease lease = transaction.prepare(bundle.sql, //
+				isReturningKeys ? Statement.RETURN_GENERATED_KEYS : Statement.NO_GENERATED_KEYS, config)) {
+
+			PreparedStatement ps = lease.ps;
+
+			if (execution != null)
+				execution.lap(Execution.Phase.PREPARE);
+
+			int pending = 0;
+			for (Object element : elements) {
+
+				params.param = element;
+				bind(ps, bundle, params, execution);
+				ps.addBatch();
+
+				if (execution != null)
+					execution.lap(Execution.Phase.BIND);
+
+				if (++pending == config.batchSize()) {
+
+					counts = executeBatch(ps, config, counts, keys, type);
+					pending = 0;
+
+					if (execution != null)
+						execution.lap(Execution.Phase.EXECUTE);
+				}
+			}
+
+			if (pending > 0) {
+
+				counts = executeBatch(ps, config, counts, keys, type);
+
+				if (execution != null)
+					execution.lap(Execution.Phase.EXECUTE);
+			}
+
+		} finally {
+			params.param = params.params[0];
+		}
+
+		if (execution != null) {
+			execution.rows = counts.length;
+			execution.updateCount = Arrays.stream(counts).filter(c -> c > 0).sum();
+			if (keys != null)
+				execution.generatedKeys = keys.size();
+		}
+
+		if (signature.returnsVoid)
+			return null;
+
+		return isReturningKeys ? keys : counts;
+	}
+
+	private static int[] executeBatch(PreparedStatement ps, Config config, int[] counts, List<Object> keys,
+			Class<?> type) throws SQLException {
+
+		int[] batch = ps.executeBatch();
+
+		int[] all = Arrays.copyOf(counts, counts.length + batch.length);
+		System.arraycopy(batch, 0, all, counts.length, batch.length);
+
+		if (keys != null)
+			try (ResultSet rs = ps.getGeneratedKeys()) {
+				while (rs.next())
+					keys.add(config.coercions().coerce(rs.getObject(1), type));
+			}
+
+		return all;
+	}
+
+	/**
+	 * Executes the children of a SQL-less bundle concurrently on the executor,
+	 * each within its own read transaction, and sets them into the object once
+	 * all of them are done.
+	 */
+	private static void executeParallel(CurrentTransaction transaction, Bundle bundle, Config config,
+			Signature signature, ParamContext params, Object object) throws Exception {
+
+		DataSource ds = transaction.dataSource;
+
+		List<Bundle> subs = new ArrayList<>();
+		List<Runnable> tasks = new ArrayList<>();
+		List<CompletableFuture<Object>> futures = new ArrayList<>();
+
+		for (Bundle sub : bundle.children.values()) {
+
+			if (sub.joinProperty != null)
+				continue;
+
+			Signature subSignature = signatureOf(sub, signature.returnType);
+			Object currentValue = Beans.getNestedProperty(object, sub.name, config.isLenient());
+			ParamContext subParams = params.copy();
+
+			CompletableFuture<Object> future = new CompletableFuture<>();
+			AtomicBoolean claimed = new AtomicBoolean();
+
+			// Run by whichever thread claims it first: an executor thread, or
+			// the calling one.
+			Runnable task = () -> {
+
+				if (!claimed.compareAndSet(false, true))
+					return;
+
+				Object value;
+				try (Transaction tx = readTransaction(ds)) {
+					((CurrentTransaction) tx).detached = true;
+					value = execute((CurrentTransaction) tx, sub, config, subSignature, subParams, currentValue);
+				} catch (Throwable t) {
+					future.completeExceptionally(t);
+					return;
+				}
 
-						return object;
+				future.complete(value);
+			};
+
+			subs.add(sub);
+			tasks.add(task);
+			futures.add(future);
+		}
+
+		// The first child is run by the calling thread anyway.
+		for (int i = 1; i < tasks.size(); i++)
+			try {
+				config.executor().execute(tasks.get(i));
+			} catch (RejectedExecutionException e) {
+				// Run by the calling thread below.
+			}
+
+		// The calling thread runs the children no executor thread has started
+		// yet, so it never waits for queued ones, even when it's an executor
+		// thread itself, e.g. completing an asynchronous method. Every child is
+		// waited for, so that none is left running on failure.
+		Throwable failure = null;
+		for (int i = 0; i < futures.size(); i++)
+			try {
+				tasks.get(i).run();
+				Object value = futures.get(i).get();
+				if (failure == null)
+					Beans.setNestedProperty(object, subs.get(i).name, value, config.isLenient(), config.coercions());
+			} catch (ExecutionException e) {
+				if (failure == null)
+					failure = e.getCause();
+			}
+
+		if (failure instanceof Exception)
+			throw (Exception) failure;
+		if (failure instanceof Error)
+			throw (Error) failure;
+	}
+
+	/**
+	 * Executes the children of a SQL-less bundle as a single statement, in a
+	 * single round trip, and maps a result set per child. Returns false,
+	 * having executed nothing, unless every child is a query and the driver
+	 * supports multiple result sets.
+	 */
+	private static boolean executeMulti(CurrentTransaction transaction, Bundle bundle, Config config,
+			Signature signature, ParamContext params, Object object, Execution execution) throws Exception {
+
+		List<Bundle> subs = new ArrayList<>();
+		List<Signature> signatures = new ArrayList<>();
+		StringBuilder sql = new StringBuilder();
+		int fetchSize = 0;
+
+		for (Bundle sub : bundle.children.values()) {
+
+			if (sub.joinProperty != null)
+				continue;
+
+			// Children per row would need the connection while results are pending.
+			if (sub.sql == null || sub.kind != Bundle.Kind.QUERY || sub.maxRows > 0 || hasRowChildren(sub))
+				return false;
+
+			Signature subSignature = signatureOf(sub, signature.returnType);
+			if (subSignature.returnsVoid || subSignature.returnsCursor || isBatch(sub, subSignature)
+					|| subSignature.returnsPage || sub.keyset != null)
+				return false;
+
+			if (sql.length() > 0)
+				sql.append(";\n");
+			sql.append(sub.sql.trim().replaceAll(";+$", ""));
+
+			fetchSize = Math.max(fetchSize, sub.fetchSizeHint());
+
+			subs.add(sub);
+			signatures.add(subSignature);
+		}
+
+		if (subs.size() < 2 || !transaction.supportsMultipleResults())
+			return false;
+
+		Object[] values = new Object[subs.size()];
+		List<List<Object>> parents = new ArrayList<>();
+
+		try (StatementCache.Lease lease = transaction.prepare(sql.toString(), Statement.NO_GENERATED_KEYS, config)) {
+
+			PreparedStatement ps = lease.ps;
+
+			if (execution != null)
+				execution.lap(Execution.Phase.PREPARE);
+
+			if (fetchSize > 0)
+				ps.setFetchSize(fetchSize);
+
+			List<Object> bound = execution == null ? null : new ArrayList<>();
+			int index = 1;
+			for (Bundle sub : subs)
+				if (sub.parameters != null)
+					for (Expression parameter : sub.parameters) {
+						Object value = params.get(parameter);
+						Lobs.bind(ps, index++, value);
+						if (bound != null)
+							bound.add(value);
 					}
 
-				};
+			if (execution != null) {
+				execution.values = bound.toArray();
+				execution.lap(Execution.Phase.BIND);
+			}
+
+			boolean results;
+			try {
+				results = ps.execute();
+			} catch (SQLFeatureNotSupportedException e) {
+				transaction.multipleResults = false;
+				return false;
+			}
+
+			if (execution != null)
+				execution.lap(Execution.Phase.EXECUTE);
+
+			int rows = 0;
+			for (int i = 0; i < subs.size(); i++) {
+
+				if (i > 0)
+					results = ps.getMoreResults();
+
+				while (!results && ps.getUpdateCount() != -1)
+					results = ps.getMoreResults();
+
+				if (!results)
+					throw new IllegalStateException("No result set for " + subs.get(i).path);
+
+				List<Object> subParents = hasJoinedChildren(subs.get(i)) ? new ArrayList<>() : null;
+				parents.add(subParents);
+
+				try (ResultSet rs = ps.getResultSet()) {
+
+					Result result = new Result(rs, subs.get(i), config, transaction.lobs(), transaction.caching > 0);
+
+					values[i] = result.toReturnTypeOf(signatures.get(i),
+							children(transaction, subs.get(i), config, params, subParents, null),
+							Beans.getNestedProperty(object, subs.get(i).name, config.isLenient()));
 
-				return result.toReturnTypeOf(method, onEach, currentValue);
+					rows += Math.max(0, result.rows());
+				}
+			}
+
+			if (execution != null) {
+				execution.lap(Execution.Phase.MAP);
+				execution.rows = rows;
 			}
 		}
+
+		for (int i = 0; i < subs.size(); i++) {
+
+			Beans.setNestedProperty(object, subs.get(i).name, values[i], config.isLenient(), config.coercions());
+
+			if (parents.get(i) != null && !parents.get(i).isEmpty())
+				executeJoined(transaction, subs.get(i), config, parents.get(i), params);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Tells whether the bundle has children executed per row, not joined.
+	 */
+	private static boolean hasRowChildren(Bundle bundle) {
+
+		if (bundle.children != null)
+			for (Bundle sub : bundle.children.values())
+				if (sub.joinProperty == null)
+					return true;
+
+		return false;
+	}
+
+	/**
+	 * Returns the signature of the getter of a child bundle in the parent type.
+	 */
+	private static Signature signatureOf(Bundle sub, Class<?> type) throws IntrospectionException {
+		return Signature.of(Beans.getReadMethod(sub.name, type));
+	}
+
+	/**
+	 * Executes the children of each row, except the batched ones, which are
+	 * collected into the parents list instead.
+	 */
+	private static Result.OnEach children(CurrentTransaction transaction, Bundle bundle, Config config,
+			ParamContext params, List<Object> parents, Execution execution) {
+
+		return new Result.OnEach() {
+
+			@Override
+			public Object onEach(Class<?> type, Object object) throws Exception {
+
+				long start = execution == null ? 0 : System.nanoTime();
+
+				if (bundle.children != null)
+					for (Bundle sub : bundle.children.values()) {
+
+						if (sub.joinProperty != null)
+							continue;
+
+						params.parent = object;
+
+						Object value = execute(transaction, sub, config, signatureOf(sub, type), params,
+								Beans.getNestedProperty(object, sub.name, config.isLenient()));
+
+						Beans.setNestedProperty(object, sub.name, value, config.isLenient(), config.coercions());
+					}
+
+				if (parents != null)
+					parents.add(object);
+
+				if (execution != null)
+					execution.move(Execution.Phase.CHILDREN, System.nanoTime() - start);
+
+				return object;
+			}
+
+		};
+	}
+
+	// ---------------------------------------------------------------------
+	// Batched children.
+	//
+	// Children with a join attribute are executed once for all the parents,
+	// with the parent keys bound to ${keys}, instead of once per parent. The
+	// rows are then distributed to the parents by the join column.
+
+	/**
+	 * Maximum number of keys bound to a single execution of a batched child.
+	 */
+	private static final int MAX_JOIN_KEYS = 512;
+
+	private static boolean hasJoinedChildren(Bundle bundle) {
+
+		if (bundle.children != null)
+			for (Bundle sub : bundle.children.values())
+				if (sub.joinProperty != null)
+					return true;
+
+		return false;
+	}
+
+	private static void executeJoined(CurrentTransaction transaction, Bundle bundle, Config config,
+			List<Object> parents, ParamContext params) throws Exception {
+
+		Class<?> type = parents.get(0).getClass();
+
+		for (Bundle sub : bundle.children.values()) {
+
+			if (sub.joinProperty == null)
+				continue;
+
+			Signature signature = signatureOf(sub, type);
+
+			Map<Object, List<Object>> parentsByKey = new LinkedHashMap<>();
+			for (Object parent : parents) {
+				Object key = Beans.getNestedProperty(parent, sub.joinProperty, config.isLenient());
+				if (key != null)
+					parentsByKey.computeIfAbsent(Result.joinKey(key), k -> new ArrayList<>(1)).add(parent);
+			}
+
+			List<Object> keys = new ArrayList<>(parentsByKey.keySet());
+			Map<Object, List<Object>> groups = new HashMap<>();
+
+			for (int from = 0; from < keys.size(); from += MAX_JOIN_KEYS)
+				groups.putAll(executeJoined(transaction, sub, config, signature, params,
+						keys.subList(from, Math.min(keys.size(), from + MAX_JOIN_KEYS))));
+
+			boolean isList = signature.returnsList;
+
+			for (Map.Entry<Object, List<Object>> entry : parentsByKey.entrySet()) {
+
+				List<Object> rows = groups.get(entry.getKey());
+
+				for (Object parent : entry.getValue()) {
+
+					Object value;
+					if (isList)
+						value = rows == null ? new ArrayList<>() : new ArrayList<>(rows);
+					else if (rows == null)
+						continue;
+					else if (rows.size() > 1)
+						throw new IllegalStateException("Query has more than one result");
+					else
+						value = rows.get(0);
+
+					Beans.setNestedProperty(parent, sub.name, value, config.isLenient(), config.coercions());
+				}
+			}
+		}
+	}
+
+	private static Map<Object, List<Object>> executeJoined(CurrentTransaction transaction, Bundle bundle,
+			Config config, Signature signature, ParamContext params, List<Object> keys) throws Exception {
+
+		if (!config.hasListeners())
+			return executeJoined(transaction, bundle, config, signature, params, keys, null);
+
+		Execution execution = new Execution(bundle, signature.method);
+
+		try {
+			return executeJoined(transaction, bundle, config, signature, params, keys, execution);
+		} catch (Exception e) {
+			execution.failure = e;
+			throw e;
+		} finally {
+			config.executed(execution);
+		}
+	}
+
+	private static Map<Object, List<Object>> executeJoined(CurrentTransaction transaction, Bundle bundle,
+			Config config, Signature signature, ParamContext params, List<Object> keys, Execution execution)
+			throws Exception {
+
+		// The number of placeholders is rounded up to a power of two, repeating
+		// the last key, so that there are few distinct statements to prepare.
+		int size = Integer.highestOneBit(keys.size());
+		if (size < keys.size())
+			size <<= 1;
+
+		List<Object> children = hasJoinedChildren(bundle) ? new ArrayList<>() : null;
+		Map<Object, List<Object>> groups;
+
+		try (StatementCache.Lease lease = transaction.prepare(expandKeys(bundle, size), Statement.NO_GENERATED_KEYS,
+				config)) {
+
+			PreparedStatement ps = lease.ps;
+
+			if (execution != null)
+				execution.lap(Execution.Phase.PREPARE);
+
+			tune(ps, bundle);
+
+			// Parameters.
+			if (bundle.parameters != null) {
+
+				Object[] values = execution == null ? null : new Object[bundle.parameters.length];
+
+				int i = 1;
+				for (int p = 0; p < bundle.parameters.length; p++) {
+
+					Expression parameter = bundle.parameters[p];
+
+					Object value;
+					if (parameter.isKeys()) {
+						for (int k = 0; k < size; k++)
+							ps.setObject(i++, keys.get(Math.min(k, keys.size() - 1)));
+						value = keys;
+					} else
+						Lobs.bind(ps, i++, value = params.get(parameter));
+
+					if (values != null)
+						values[p] = value;
+				}
+
+				if (execution != null)
+					execution.values = values;
+			}
+
+			if (execution != null)
+				execution.lap(Execution.Phase.BIND);
+
+			try (ResultSet rs = ps.executeQuery()) {
+
+				if (execution != null)
+					execution.lap(Execution.Phase.EXECUTE);
+
+				Result result = new Result(rs, bundle, config, transaction.lobs(), transaction.caching > 0);
+
+				groups = result.groupBy(bundle.joinColumn, signature,
+						children(transaction, bundle, config, params, children, execution));
+
+				if (execution != null) {
+					execution.lap(Execution.Phase.MAP);
+					execution.rows = result.rows();
+				}
+			}
+		}
+
+		if (children != null && !children.isEmpty()) {
+
+			executeJoined(transaction, bundle, config, children, params);
+
+			if (execution != null)
+				execution.lap(Execution.Phase.CHILDREN);
+		}
+
+		return groups;
+	}
+
+	/**
+	 * Expands each ${keys} placeholder to {@code size} placeholders.
+	 */
+	private static String expandKeys(Bundle bundle, int size) {
+
+		if (bundle.parameters == null)
+			return bundle.sql;
+
+		StringBuilder sb = new StringBuilder(bundle.sql.length() + 3 * size);
+
+		int last = 0;
+		for (int i = 0; i < bundle.parameters.length; i++) {
+
+			if (!bundle.parameters[i].isKeys())
+				continue;
+
+			int at = bundle.placeholders[i];
+			sb.append(bundle.sql, last, at);
+			for (int k = 0; k < size; k++)
+				sb.append(k == 0 ? "?" : ", ?");
+			last = at + 1;
+		}
+
+		sb.append(bundle.sql, last, bundle.sql.length());
+
+		return sb.toString();
 	}
 
 	// ---------------------------------------------------------------------
@@ -227,8 +1196,12 @@ public class Bundler {
 	// committed or rolled back.
 	//
 	// The methods accept a DataSource or an inflated object.
+	//
+	// Threads don't inherit the transaction, as connections aren't thread
+	// safe. They join it explicitly with Transaction.wrap(), and executions
+	// synchronize on the transaction.
 
-	private static final ThreadLocal<CurrentTransaction> current = new InheritableThreadLocal<CurrentTransaction>();
+	private static final ThreadLocal<CurrentTransaction> current = new ThreadLocal<CurrentTransaction>();
 
 	public static Transaction readTransaction(DataSource ds) {
 		return connect(ds, true, false);
@@ -246,6 +1219,32 @@ public class Bundler {
 		return connect(ds, false, true);
 	}
 
+	/**
+	 * Runs the task within its own read transaction, e.g. from an executor.
+	 */
+	public static <T> T inReadTransaction(DataSource ds, Callable<T> task) throws Exception {
+
+		Transaction tx = readTransaction(ds);
+
+		try {
+			return task.call();
+		} finally {
+			tx.close();
+		}
+	}
+
+	/**
+	 * Runs the task within its own write transaction, e.g. from an executor,
+	 * committed if the task completes normally.
+	 */
+	public static <T> T inWriteTransaction(DataSource ds, Callable<T> task) throws Exception {
+		try (Transaction tx = writeTransaction(ds)) {
+			T value = task.call();
+			tx.success();
+			return value;
+		}
+	}
+
 	private static Transaction connect(DataSource ds, boolean readOnly, boolean inherit) {
 
 		if (ds == null)
@@ -256,6 +1255,8 @@ public class Bundler {
 			CurrentTransaction oldTx = current.get();
 			if (oldTx == null || !inherit) {
 				CurrentTransaction newTx = new CurrentTransaction();
+				newTx.started = ResultCache.now();
+				newTx.dataSource = ds;
 				newTx.connection = ds.getConnection();
 				newTx.connection.setReadOnly(readOnly);
 				newTx.connection.setAutoCommit(false);
@@ -273,9 +1274,88 @@ public class Bundler {
 
 	private static class CurrentTransaction implements Transaction {
 
+		DataSource dataSource;
+		long started;
 		Connection connection;
 		boolean success = false;
 		public CurrentTransaction previous;
+		StatementCache statements;
+		final Set<Cursor> cursors = Collections.synchronizedSet(new LinkedHashSet<>());
+		volatile boolean closed;
+		Set<String> invalidated;
+		Boolean multipleResults;
+		final List<Object> lobs = Collections.synchronizedList(new ArrayList<>());
+
+		/**
+		 * Whether the results outlive the transaction, as those of asynchronous
+		 * methods and parallel children, so that large objects are read eagerly.
+		 */
+		boolean detached;
+
+		/**
+		 * How many executions being cached are in progress. Their results are
+		 * shared, so they can't have streams nor large objects.
+		 */
+		int caching;
+
+		/**
+		 * Where the large objects read lazily are added, or null if they're
+		 * read eagerly.
+		 */
+		List<Object> lobs() {
+			return detached ? null : lobs;
+		}
+
+		// The statement cache is created by the first DAO with a cache size,
+		// and then shared by every DAO in the transaction.
+		StatementCache.Lease prepare(String sql, int autoGeneratedKeys, Config config) throws SQLException {
+
+			if (statements == null) {
+
+				if (config.statementCacheSize() == 0)
+					return new StatementCache.Lease(connection.prepareStatement(sql, autoGeneratedKeys), false);
+
+				statements = new StatementCache(config.statementCacheSize());
+			}
+
+			return statements.prepare(connection, sql, autoGeneratedKeys, config);
+		}
+
+		/**
+		 * Tells whether the driver can return multiple result sets from a
+		 * statement, as reported by its metadata.
+		 */
+		boolean supportsMultipleResults() throws SQLException {
+			if (multipleResults == null)
+				multipleResults = connection.getMetaData().supportsMultipleResultSets();
+			return multipleResults;
+		}
+
+		/**
+		 * Records the tables written, whose cached results are discarded on
+		 * commit.
+		 */
+		void invalidate(String[] tables) {
+			if (invalidated == null)
+				invalidated = new HashSet<>();
+			Collections.addAll(invalidated, tables);
+		}
+
+		/**
+		 * Tells whether any of the tables has been written, and so their cached
+		 * results are stale within this transaction.
+		 */
+		boolean invalidates(String[] tables) {
+
+			if (invalidated == null || tables == null)
+				return false;
+
+			for (String table : tables)
+				if (invalidated.contains(table))
+					return true;
+
+			return false;
+		}
 
 		@Override
 		public void success() {
@@ -283,12 +1363,61 @@ public class Bundler {
 		}
 
 		@Override
-		public void close() {
+		public Runnable wrap(Runnable task) {
+
+			Objects.requireNonNull(task, "task is required");
+
+			return () -> {
+				CurrentTransaction previous = join();
+				try {
+					task.run();
+				} finally {
+					current.set(previous);
+				}
+			};
+		}
+
+		@Override
+		public <T> Callable<T> wrap(Callable<T> task) {
+
+			Objects.requireNonNull(task, "task is required");
+
+			return () -> {
+				CurrentTransaction previous = join();
+				try {
+					return task.call();
+				} finally {
+					current.set(previous);
+				}
+			};
+		}
+
+		/**
+		 * Binds this transaction to the calling thread, returning the one it
+		 * replaces.
+		 */
+		private CurrentTransaction join() {
+
+			if (closed)
+				throw new IllegalStateException("Transaction already closed");
+
+			CurrentTransaction previous = current.get();
+			current.set(this);
+			return previous;
+		}
+
+		@Override
+		public synchronized void close() {
+
+			closed = true;
+
 			try {
 
-				if (success)
+				if (success) {
 					connection.commit();
-				else
+					if (invalidated != null)
+						ResultCache.invalidate(invalidated);
+				} else
 					connection.rollback();
 
 			} catch (SQLException e) {
@@ -296,6 +1425,25 @@ public class Bundler {
 			} finally {
 				try {
 
+					List<Cursor> open;
+					synchronized (cursors) {
+						open = new ArrayList<>(cursors);
+					}
+
+					for (Cursor cursor : open)
+						try {
+							cursor.close();
+						} catch (BundlerSQLException e) {
+							// Ignored. The connection will close it anyway.
+						}
+
+					if (statements != null)
+						statements.close();
+
+					synchronized (lobs) {
+						Lobs.free(lobs);
+					}
+
 					connection.close();
 
 				} catch (SQLException e) {
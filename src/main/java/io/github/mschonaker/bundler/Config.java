@@ -3,15 +3,23 @@ package io.github.mschonaker.bundler;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.nio.charset.Charset;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
 
 import io.github.mschonaker.bundler.loader.Bundle;
 import io.github.mschonaker.bundler.loader.BundleLoader;
@@ -19,9 +27,18 @@ import io.github.mschonaker.bundler.utils.Coercions;
 
 public class Config {
 
+	private static final Logger LOGGER = Logger.getLogger(Config.class.getName());
+
 	private boolean lenient = true;
 	private Coercions coercions = Coercions.JRE;
 	private Map<String, Bundle> bundles;
+	private int statementCacheSize;
+	private int batchSize = 1000;
+	private final LongAdder statementCacheHits = new LongAdder();
+	private final LongAdder statementCacheMisses = new LongAdder();
+	private ExecutionListener[] listeners = {};
+	private Executor executor;
+	private DataSource dataSource;
 
 	public Config coercions(Coercions coercions) {
 		this.coercions = coercions;
@@ -59,12 +76,15 @@ public class Config {
 		return this;
 	}
 
+	/**
+	 * Loads the bundles of the interface. They're parsed only once and shared
+	 * by every configuration loading them.
+	 */
 	public Config loadResource(Class<?> type) throws IOException {
-		String name = type.getName().replace('.', '/') + "-bundler.xml";
-		InputStream resource = type.getClassLoader().getResourceAsStream(name);
-		if (resource == null)
-			throw new FileNotFoundException("Unble to locate resource " + name);
-		load(resource);
+		Map<String, Bundle> shared = BundleRegistry.get(type);
+		if (bundles == null)
+			bundles = new HashMap<>();
+		bundles.putAll(shared);
 		return this;
 	}
 
@@ -83,6 +103,139 @@ public class Config {
 		return this;
 	}
 
+	/**
+	 * Caches up to {@code size} prepared statements per transaction, least
+	 * recently used evicted first. Zero, the default, disables the cache.
+	 */
+	public Config statementCacheSize(int size) {
+		if (size < 0)
+			throw new IllegalArgumentException("size");
+		this.statementCacheSize = size;
+		return this;
+	}
+
+	/**
+	 * The number of elements sent per JDBC batch by batched writes. 1000 by
+	 * default.
+	 */
+	public Config batchSize(int size) {
+		if (size <= 0)
+			throw new IllegalArgumentException("size");
+		this.batchSize = size;
+		return this;
+	}
+
+	/**
+	 * Registers a listener, notified of every execution of a bundle.
+	 */
+	public Config listener(ExecutionListener listener) {
+		Objects.requireNonNull(listener, "listener is required");
+		listeners = Arrays.copyOf(listeners, listeners.length + 1);
+		listeners[listeners.length - 1] = listener;
+		return this;
+	}
+
+	/**
+	 * Logs the executions taking longer than the threshold, in milliseconds.
+	 * Use {@link #listener(ExecutionListener)} with a {@link SlowQueryLog} for
+	 * sampling and rate limiting.
+	 */
+	public Config slowQueryLog(long thresholdMillis) {
+		return listener(new SlowQueryLog(thresholdMillis));
+	}
+
+	/**
+	 * The executor running the methods returning a {@code CompletableFuture}.
+	 * By default, a thread per call: virtual threads where supported, or a
+	 * shared pool of daemon threads otherwise.
+	 */
+	public Config executor(Executor executor) {
+		this.executor = Objects.requireNonNull(executor, "executor is required");
+		return this;
+	}
+
+	/**
+	 * The DataSource the methods returning a {@code CompletableFuture} open
+	 * their read transactions against.
+	 */
+	public Config dataSource(DataSource dataSource) {
+		this.dataSource = Objects.requireNonNull(dataSource, "dataSource is required");
+		return this;
+	}
+
+	/**
+	 * How many statements were reused from the statement cache.
+	 */
+	public long statementCacheHits() {
+		return statementCacheHits.sum();
+	}
+
+	/**
+	 * How many statements had to be prepared with the statement cache enabled.
+	 */
+	public long statementCacheMisses() {
+		return statementCacheMisses.sum();
+	}
+
+	void statementCacheHit() {
+		statementCacheHits.increment();
+	}
+
+	void statementCacheMiss() {
+		statementCacheMisses.increment();
+	}
+
+	boolean hasListeners() {
+		return listeners.length > 0;
+	}
+
+	void executed(Execution execution) {
+		execution.end();
+		for (ExecutionListener listener : listeners)
+			try {
+				listener.executed(execution);
+			} catch (RuntimeException e) {
+				LOGGER.log(Level.WARNING, "Listener " + listener + " failed on " + execution.getPath(), e);
+			}
+	}
+
+	Executor executor() {
+		return executor != null ? executor : DefaultExecutor.INSTANCE;
+	}
+
+	DataSource dataSource() {
+		return dataSource;
+	}
+
+	/**
+	 * Created on first use only. Virtual threads are looked up reflectively, as
+	 * the library targets older JDKs.
+	 */
+	private static class DefaultExecutor {
+
+		static final Executor INSTANCE = create();
+
+		private static Executor create() {
+			try {
+				return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+			} catch (ReflectiveOperationException e) {
+				return Executors.newCachedThreadPool(task -> {
+					Thread thread = new Thread(task, "bundler");
+					thread.setDaemon(true);
+					return thread;
+				});
+			}
+		}
+	}
+
+	int batchSize() {
+		return batchSize;
+	}
+
+	int statementCacheSize() {
+		return statementCacheSize;
+	}
+
 	Map<String, Bundle> bundles() {
 		return bundles;
 	}
@@ -0,0 +1,144 @@
+package io.github.mschonaker.bundler;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * A forward-only iterator over a {@link ResultSet}, mapping one row at a time.
+ * It closes the statement when exhausted, when closed or when the transaction
+ * ends, whatever happens first. The large objects read lazily from a row are
+ * freed as it moves to the next one, so that streaming them holds a row's
+ * worth at a time.
+ *
+ * @author mschonaker
+ */
+class Cursor implements Iterator<Object>, AutoCloseable {
+
+	private final StatementCache.Lease lease;
+	private final ResultSet rs;
+	private final Result result;
+	private final List<Object> lobs;
+	private final Class<?> type;
+	private final boolean scalar;
+	private final Result.OnEach onEach;
+	private final Collection<Cursor> open;
+	private final Config config;
+	private final Execution execution;
+
+	private int rows;
+	private boolean fetched;
+	private boolean hasNext;
+	private boolean exhausted;
+	private boolean closed;
+
+	/**
+	 * @param lobs
+	 *            where the result adds the large objects of each row.
+	 */
+	Cursor(StatementCache.Lease lease, ResultSet rs, Result result, List<Object> lobs, Class<?> type, boolean scalar,
+			Result.OnEach onEach, Collection<Cursor> open, Config config, Execution execution) {
+		this.lease = lease;
+		this.rs = rs;
+		this.result = result;
+		this.lobs = lobs;
+		this.type = type;
+		this.scalar = scalar;
+		this.onEach = onEach;
+		this.open = open;
+		this.config = config;
+		this.execution = execution;
+		open.add(this);
+	}
+
+	@Override
+	public boolean hasNext() {
+
+		if (exhausted)
+			return false;
+
+		if (closed)
+			throw new IllegalStateException("Cursor closed before it was exhausted");
+
+		if (!fetched) {
+
+			free();
+
+			try {
+				hasNext = rs.next();
+			} catch (SQLException e) {
+				close();
+				throw new BundlerSQLException(e);
+			}
+
+			fetched = true;
+
+			if (hasNext)
+				rows++;
+			else {
+				exhausted = true;
+				result.recordRows(rows);
+				close();
+			}
+		}
+
+		return hasNext;
+	}
+
+	@Override
+	public Object next() {
+
+		if (!hasNext())
+			throw new NoSuchElementException();
+
+		fetched = false;
+
+		try {
+			return result.currentRow(type, scalar, onEach);
+		} catch (Exception e) {
+			close();
+			throw new BundlerSQLException(e);
+		}
+	}
+
+	@Override
+	public void close() {
+
+		if (closed)
+			return;
+
+		closed = true;
+		open.remove(this);
+
+		// The mapping phase includes the time spent by the consumer.
+		if (execution != null) {
+			execution.lap(Execution.Phase.MAP);
+			execution.rows = rows;
+			config.executed(execution);
+		}
+
+		free();
+
+		try {
+			rs.close();
+		} catch (SQLException e) {
+			throw new BundlerSQLException(e);
+		} finally {
+			try {
+				lease.close();
+			} catch (SQLException e) {
+				throw new BundlerSQLException(e);
+			}
+		}
+	}
+
+	private void free() {
+		if (!lobs.isEmpty()) {
+			Lobs.free(lobs);
+			lobs.clear();
+		}
+	}
+}
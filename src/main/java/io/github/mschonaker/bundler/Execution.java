@@ -0,0 +1,189 @@
+package io.github.mschonaker.bundler;
+
+import java.lang.reflect.Method;
+
+import io.github.mschonaker.bundler.loader.Bundle;
+
+/**
+ * The execution of a bundle, as reported to {@link ExecutionListener}s: what
+ * was executed, what it returned and how long each phase took.
+ *
+ * @author mschonaker
+ */
+public final class Execution {
+
+	/**
+	 * The phases of an execution.
+	 */
+	public static enum Phase {
+
+		/**
+		 * Preparing the statement, or leasing it from the statement cache.
+		 */
+		PREPARE,
+
+		/**
+		 * Binding the parameters.
+		 */
+		BIND,
+
+		/**
+		 * Executing the statement.
+		 */
+		EXECUTE,
+
+		/**
+		 * Mapping the rows or the generated keys, children excluded.
+		 */
+		MAP,
+
+		/**
+		 * Executing the children, each of which is reported too.
+		 */
+		CHILDREN
+	}
+
+	private final Bundle bundle;
+	private final Method method;
+	private final long[] nanos = new long[Phase.values().length];
+	private final long start;
+	private long last;
+	private long end;
+
+	int rows = -1;
+	int updateCount = -1;
+	int generatedKeys = -1;
+	Object[] values;
+	Throwable failure;
+
+	/**
+	 * Cursors report their executions when closed.
+	 */
+	boolean deferred;
+
+	Execution(Bundle bundle, Method method) {
+		this.bundle = bundle;
+		this.method = method;
+		start = last = System.nanoTime();
+	}
+
+	/**
+	 * Ends the phase, which took since the end of the previous one.
+	 */
+	void lap(Phase phase) {
+		long now = System.nanoTime();
+		nanos[phase.ordinal()] += now - last;
+		last = now;
+	}
+
+	/**
+	 * Accounts time elapsed within the current phase to another phase.
+	 */
+	void move(Phase phase, long elapsed) {
+		nanos[phase.ordinal()] += elapsed;
+		last += elapsed;
+	}
+
+	void end() {
+		end = System.nanoTime();
+	}
+
+	/**
+	 * The path of the bundle, like {@code getUser.roles} for a child.
+	 */
+	public String getPath() {
+		return bundle.path;
+	}
+
+	public String getSql() {
+		return bundle.sql;
+	}
+
+	/**
+	 * The method, or the getter of the property, a child bundle is executed
+	 * for.
+	 */
+	public Method getMethod() {
+		return method;
+	}
+
+	/**
+	 * The {@code slowThreshold} attribute of the bundle, in milliseconds, -1 if
+	 * not set.
+	 */
+	public int getSlowThreshold() {
+		return bundle.slowThreshold;
+	}
+
+	/**
+	 * The number of parameters bound, per element for batches.
+	 */
+	public int getParameterCount() {
+		return bundle.parameters == null ? 0 : bundle.parameters.length;
+	}
+
+	/**
+	 * The values bound to the parameters, in order, or null if none. For
+	 * batches, those of the last element. For batched children, the keys are
+	 * bound as a list.
+	 */
+	public Object[] getValues() {
+		return values;
+	}
+
+	/**
+	 * The rows mapped, or the elements of a batch, -1 if not applicable.
+	 */
+	public int getRows() {
+		return rows;
+	}
+
+	/**
+	 * The rows updated, -1 for queries.
+	 */
+	public int getUpdateCount() {
+		return updateCount;
+	}
+
+	/**
+	 * The generated keys read, -1 if none were asked for.
+	 */
+	public int getGeneratedKeys() {
+		return generatedKeys;
+	}
+
+	public long getNanos(Phase phase) {
+		return nanos[phase.ordinal()];
+	}
+
+	public long getTotalNanos() {
+		return end - start;
+	}
+
+	/**
+	 * What the execution failed with, if so.
+	 */
+	public Throwable getFailure() {
+		return failure;
+	}
+
+	@Override
+	public String toString() {
+
+		StringBuilder sb = new StringBuilder("Execution [path=").append(getPath()).append(", rows=").append(rows);
+
+		if (updateCount >= 0)
+			sb.append(", updateCount=").append(updateCount);
+		if (generatedKeys >= 0)
+			sb.append(", generatedKeys=").append(generatedKeys);
+
+		sb.append(", totalNanos=").append(getTotalNanos());
+		for (Phase phase : Phase.values())
+			sb.append(", ").append(phase.name().toLowerCase()).append('=').append(getNanos(phase));
+
+		if (failure != null)
+			sb.append(", failure=").append(failure);
+
+		return sb.append(']').toString();
+	}
+}
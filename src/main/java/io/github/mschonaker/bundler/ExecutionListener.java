@@ -0,0 +1,17 @@
+package io.github.mschonaker.bundler;
+
+/**
+ * Notified of every execution of a bundle, children included, once it
+ * finishes. Registered with {@link Config#listener(ExecutionListener)}.
+ *
+ * Listeners are called in the thread executing the bundle, within its
+ * transaction, so they should return quickly. What they throw is logged and
+ * doesn't affect the execution nor the other listeners.
+ *
+ * @author mschonaker
+ */
+public interface ExecutionListener {
+
+	void executed(Execution execution);
+
+}
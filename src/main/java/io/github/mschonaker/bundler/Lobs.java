@@ -0,0 +1,96 @@
+package io.github.mschonaker.bundler;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Binds large values as streams, with their lengths when known, so that
+ * drivers can send them without materializing them first.
+ *
+ * @author mschonaker
+ */
+final class Lobs {
+
+	/**
+	 * Byte arrays from this length on are bound as streams. Strings aren't, as
+	 * they may be compared with VARCHAR columns, which some drivers don't allow
+	 * for character streams.
+	 */
+	static final int STREAM_THRESHOLD = 1 << 16;
+
+	private Lobs() {
+	}
+
+	static void bind(PreparedStatement ps, int index, Object value) throws SQLException {
+
+		if (value instanceof InputStream) {
+
+			InputStream in = (InputStream) value;
+			long length = lengthOf(in);
+
+			if (length >= 0)
+				ps.setBinaryStream(index, in, length);
+			else
+				ps.setBinaryStream(index, in);
+
+		} else if (value instanceof ReadableByteChannel)
+			ps.setBinaryStream(index, Channels.newInputStream((ReadableByteChannel) value));
+		else if (value instanceof Reader)
+			ps.setCharacterStream(index, (Reader) value);
+		else if (value instanceof Blob)
+			ps.setBlob(index, (Blob) value);
+		else if (value instanceof Clob)
+			ps.setClob(index, (Clob) value);
+		else if (value instanceof byte[] && ((byte[]) value).length >= STREAM_THRESHOLD) {
+			byte[] bytes = (byte[]) value;
+			ps.setBinaryStream(index, new ByteArrayInputStream(bytes), bytes.length);
+		} else
+			ps.setObject(index, value);
+	}
+
+	/**
+	 * The remaining bytes of the stream, when they're known, or -1.
+	 */
+	private static long lengthOf(InputStream in) {
+		try {
+
+			if (in instanceof ByteArrayInputStream)
+				return in.available();
+
+			if (in instanceof FileInputStream) {
+				FileInputStream file = (FileInputStream) in;
+				return file.getChannel().size() - file.getChannel().position();
+			}
+
+		} catch (IOException e) {
+			// Unknown.
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Frees the large objects read lazily, ignoring failures, as the
+	 * transaction is ending anyway.
+	 */
+	static void free(Iterable<Object> lobs) {
+		for (Object lob : lobs)
+			try {
+				if (lob instanceof Blob)
+					((Blob) lob).free();
+				else if (lob instanceof Clob)
+					((Clob) lob).free();
+			} catch (SQLException | RuntimeException e) {
+				// Ignored.
+			}
+	}
+}
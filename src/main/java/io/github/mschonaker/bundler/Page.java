@@ -0,0 +1,42 @@
+package io.github.mschonaker.bundler;
+
+import java.util.List;
+
+/**
+ * A page of a keyset paginated bundle, with the token of the next one.
+ *
+ * The token is opaque: it's to be handed back to fetch the next page, e.g.
+ * by a web client, and carries the keys of the last row of this one.
+ *
+ * @author mschonaker
+ */
+public final class Page<T> {
+
+	private final List<T> items;
+	private final String next;
+
+	Page(List<T> items, String next) {
+		this.items = items;
+		this.next = next;
+	}
+
+	public List<T> getItems() {
+		return items;
+	}
+
+	/**
+	 * The token of the next page, or null if this is the last one.
+	 */
+	public String getNext() {
+		return next;
+	}
+
+	public boolean hasNext() {
+		return next != null;
+	}
+
+	@Override
+	public String toString() {
+		return "Page [items=" + items + ", next=" + next + "]";
+	}
+}
@@ -1,38 +1,34 @@
 package io.github.mschonaker.bundler;
 
-import javax.el.ExpressionFactory;
-import javax.el.ValueExpression;
-
-import de.odysseus.el.ExpressionFactoryImpl;
-import de.odysseus.el.ExpressionFactoryImpl.Profile;
-import de.odysseus.el.TreeValueExpression;
-import de.odysseus.el.util.SimpleContext;
+import io.github.mschonaker.bundler.loader.Expression;
 
 /**
- * A context for evaluating EL expressions.
+ * The values that parameter expressions are evaluated against.
  *
  * @author mschonaker
  */
 class ParamContext {
 
-	private final ExpressionFactory factory = new ExpressionFactoryImpl(Profile.JEE6, null);
-	private final SimpleContext elc = new SimpleContext();
+	final Object[] params;
+	Object param;
+	Object parent;
 
-	public Object get(String expression) {
-		ValueExpression ve = factory.createValueExpression(elc, "${" + expression + "}", Object.class);
-		return ve.getValue(elc);
+	ParamContext(Object[] params) {
+		this.params = params;
+		this.param = params != null && params.length > 0 ? params[0] : null;
 	}
 
-	public void set(String expression, Object value) {
-
-		TreeValueExpression e = (TreeValueExpression) factory.createValueExpression(elc, "#{" + expression + "}", Object.class);
-
-		Class<?> targetType = e.getType(elc);
-
-		Object coerced = factory.coerceToType(value, targetType);
-
-		ValueExpression ve = factory.createValueExpression(elc, "#{" + expression + "}", Object.class);
-		ve.setValue(elc, coerced);
+	/**
+	 * A copy, for executions on other threads.
+	 */
+	ParamContext copy() {
+		ParamContext copy = new ParamContext(params);
+		copy.param = param;
+		copy.parent = parent;
+		return copy;
+	}
 
+	public Object get(Expression expression) {
+		return expression.evaluate(params, param, parent);
 	}
 }
@@ -1,16 +1,19 @@
 package io.github.mschonaker.bundler;
 
-import java.lang.reflect.Method;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.LinkedList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
-import io.github.mschonaker.bundler.utils.Beans;
-import io.github.mschonaker.bundler.utils.Methods;
+import io.github.mschonaker.bundler.loader.Bundle;
+import io.github.mschonaker.bundler.loader.Keyset;
+import io.github.mschonaker.bundler.utils.RowMapper;
+import io.github.mschonaker.bundler.utils.Signature;
 
 /**
  * A class around a {@link ResultSet} with special target-type capabilities.
@@ -28,95 +31,214 @@ class Result {
 
 	}
 
+	/**
+	 * How many row mapping plans are kept per bundle.
+	 */
+	private static final int MAX_MAPPERS = 8;
+
+	/**
+	 * Lists are presized from the estimated rows of the bundle, up to this.
+	 */
+	private static final int MAX_INITIAL_CAPACITY = 1 << 16;
+
 	private final ResultSet rs;
-	private final String[] targetPropertyNames;
+	private final Bundle bundle;
 	private final Config config;
+	private final Collection<Object> lobs;
+	private final boolean shared;
+	private final int columnCount;
+	private RowMapper mapper;
+	private int rows = -1;
 
-	Result(ResultSet rs, Config config) throws SQLException {
+	/**
+	 * @param lobs
+	 *            where the large objects read lazily are added, to be freed
+	 *            with the transaction, or null to read them eagerly.
+	 * @param shared
+	 *            whether the results are shared, e.g. cached, so that they
+	 *            can't have streams nor large objects.
+	 */
+	Result(ResultSet rs, Bundle bundle, Config config, Collection<Object> lobs, boolean shared) throws SQLException {
 		this.rs = rs;
-		targetPropertyNames = obtainTargetPropertyNames(rs);
+		this.bundle = bundle;
 		this.config = config;
+		this.lobs = lobs;
+		this.shared = shared;
+		columnCount = rs.getMetaData().getColumnCount();
 	}
 
-	private static String[] obtainTargetPropertyNames(ResultSet rs) throws SQLException {
+	private RowMapper mapperFor(Class<?> targetClass) throws SQLException {
+		return mapperFor(targetClass, 0);
+	}
 
-		ResultSetMetaData rmd = rs.getMetaData();
+	/**
+	 * Returns the mapper for the target, where the column at the optional
+	 * index is only mapped if the target has a property for it.
+	 */
+	private RowMapper mapperFor(Class<?> targetClass, int optional) throws SQLException {
 
-		String[] targetPropertyNames = new String[rmd.getColumnCount()];
+		ResultSetMetaData md = rs.getMetaData();
 
-		for (int i = 0; i < rmd.getColumnCount(); i++) {
+		for (RowMapper mapper : bundle.mappers)
+			if (mapper.matches(targetClass, md, config.coercions(), config.isLenient(), optional))
+				return checkShared(mapper);
 
-			String targetPropertyName = rmd.getColumnLabel(i + 1);
-			if (targetPropertyName == null || targetPropertyName.isEmpty())
-				targetPropertyName = rmd.getColumnLabel(i + 1);
+		RowMapper mapper = checkShared(
+				RowMapper.compile(targetClass, md, config.coercions(), config.isLenient(), optional));
 
-			targetPropertyNames[i] = toCamelCase(targetPropertyName);
-		}
+		if (bundle.mappers.size() >= MAX_MAPPERS)
+			bundle.mappers.remove(0);
+		bundle.mappers.add(mapper);
+
+		return mapper;
+	}
 
-		return targetPropertyNames;
+	private RowMapper checkShared(RowMapper mapper) {
+
+		if (shared && mapper.mapsStreams())
+			throw new IllegalArgumentException("Cached results can't have streams nor large objects: " + bundle.path);
+
+		return mapper;
 	}
 
-	private static String toCamelCase(String value) {
+	private int initialCapacity() {
+		int estimate = bundle.estimatedRows;
+		return estimate < 0 ? 10 : Math.min(MAX_INITIAL_CAPACITY, estimate);
+	}
 
-		String[] split = value.split("_");
+	/**
+	 * Records the rows read into the estimate of the bundle.
+	 */
+	void recordRows(int rows) {
+		this.rows = rows;
+		bundle.recordRows(rows);
+	}
 
-		return split[0].toLowerCase() + //
-				Arrays.stream(split, 1, split.length)//
-						.map(String::toLowerCase)//
-						.map(s -> s.substring(0, 1).toUpperCase() + s.substring(1))//
-						.collect(Collectors.joining());
+	/**
+	 * The rows read, -1 if not known yet.
+	 */
+	int rows() {
+		return rows;
+	}
+
+	/**
+	 * Maps the current row, for cursors.
+	 */
+	Object currentRow(Class<?> targetClass, boolean scalar, OnEach onEach) throws Exception {
+
+		if (scalar) {
+			if (columnCount != 1)
+				throw new IllegalArgumentException("Couldn't unbox. Have more than one column: " + columnCount);
+			return config.coercions().coerce(rs.getObject(1), targetClass);
+		}
+
+		if (mapper == null)
+			mapper = mapperFor(targetClass);
+
+		Object object = targetClass.newInstance();
+
+		mapper.map(rs, object, lobs);
+
+		return onEach.onEach(targetClass, object);
 	}
 
 	private List<Object> asListOf(Class<?> targetClass, OnEach onEach) throws Exception {
 
-		List<Object> list = new LinkedList<>();
+		RowMapper mapper = mapperFor(targetClass);
+
+		List<Object> list = new ArrayList<>(initialCapacity());
 		while (rs.next()) {
 
 			Object object = targetClass.newInstance();
 
-			for (int i = 0; i < targetPropertyNames.length; i++) {
-				Object value = rs.getObject(i + 1);
-
-				String property = targetPropertyNames[i];
-				Beans.setNestedProperty(object, property, value, config.isLenient(), config.coercions());
-			}
+			mapper.map(rs, object, lobs);
 
 			list.add(onEach.onEach(targetClass, object));
 		}
 
+		recordRows(list.size());
+
 		return list;
 	}
 
 	private <T> List<T> asScalarListOf(Class<T> targetClass) throws Exception {
 
-		if (targetPropertyNames.length != 1)
-			throw new IllegalArgumentException(
-					"Couldn't unbox. Have more than one column: " + targetPropertyNames.length);
+		if (columnCount != 1)
+			throw new IllegalArgumentException("Couldn't unbox. Have more than one column: " + columnCount);
 
-		List<T> list = new LinkedList<T>();
+		List<T> list = new ArrayList<T>(initialCapacity());
 
 		while (rs.next())
 			list.add(targetClass.cast(config.coercions().coerce(rs.getObject(1), targetClass)));
 
+		recordRows(list.size());
+
 		return list;
 	}
 
+	/**
+	 * Reads a single numeric column into a primitive array, without boxing.
+	 * SQL NULLs are read as zeroes.
+	 */
+	private Object asArrayOf(Class<?> arrayType) throws Exception {
+
+		if (columnCount != 1)
+			throw new IllegalArgumentException("Couldn't unbox. Have more than one column: " + columnCount);
+
+		int size = 0;
+
+		if (arrayType.equals(long[].class)) {
+
+			long[] array = new long[Math.max(initialCapacity(), 1)];
+			while (rs.next()) {
+				if (size == array.length)
+					array = Arrays.copyOf(array, size * 2);
+				array[size++] = rs.getLong(1);
+			}
+
+			recordRows(size);
+			return size == array.length ? array : Arrays.copyOf(array, size);
+		}
+
+		if (arrayType.equals(int[].class)) {
+
+			int[] array = new int[Math.max(initialCapacity(), 1)];
+			while (rs.next()) {
+				if (size == array.length)
+					array = Arrays.copyOf(array, size * 2);
+				array[size++] = rs.getInt(1);
+			}
+
+			recordRows(size);
+			return size == array.length ? array : Arrays.copyOf(array, size);
+		}
+
+		double[] array = new double[Math.max(initialCapacity(), 1)];
+		while (rs.next()) {
+			if (size == array.length)
+				array = Arrays.copyOf(array, size * 2);
+			array[size++] = rs.getDouble(1);
+		}
+
+		recordRows(size);
+		return size == array.length ? array : Arrays.copyOf(array, size);
+	}
+
 	private Object asOneOf(Class<?> targetClass, OnEach onEach, Object currentValue) throws Exception {
 
 		Object object = currentValue;
 
+		rows = 0;
+
 		if (!rs.next())
 			return object;
 
+		rows = 1;
+
 		if (object == null)
 			object = targetClass.newInstance();
 
-		for (int i = 0; i < targetPropertyNames.length; i++) {
-			Object value = rs.getObject(i + 1);
-
-			String propertyName = targetPropertyNames[i];
-			Beans.setNestedProperty(object, propertyName, value, config.isLenient(), config.coercions());
-		}
+		mapperFor(targetClass).map(rs, object, lobs);
 
 		if (rs.next())
 			throw new IllegalStateException("Query has more than one result");
@@ -126,13 +248,16 @@ class Result {
 
 	private <T> T asScalarOf(Class<T> targetClass) throws Exception {
 
-		if (targetPropertyNames.length != 1)
-			throw new IllegalArgumentException(
-					"Couldn't unbox. Have more than one column: " + targetPropertyNames.length);
+		if (columnCount != 1)
+			throw new IllegalArgumentException("Couldn't unbox. Have more than one column: " + columnCount);
+
+		rows = 0;
 
 		if (!rs.next())
 			return null;
 
+		rows = 1;
+
 		Object value = rs.getObject(1);
 
 		if (rs.next())
@@ -141,19 +266,136 @@ class Result {
 		return targetClass.cast(config.coercions().coerce(value, targetClass));
 	}
 
-	public Object toReturnTypeOf(Method method, OnEach onEach, Object currentValue) throws Exception {
+	/**
+	 * Maps a page of a keyset paginated bundle, reading the keys of each row
+	 * so that the next page starts after the last one. There's no next page
+	 * if this one is empty, or has fewer rows than the page size, if known.
+	 */
+	Page<Object> asPageOf(Signature signature, Keyset keyset, int pageSize, OnEach onEach) throws Exception {
+
+		ResultSetMetaData md = rs.getMetaData();
+
+		int[] keys = new int[keyset.columns.length];
+		for (int k = 0; k < keys.length; k++) {
+			for (int i = 1; i <= columnCount && keys[k] == 0; i++)
+				if (keyset.labels[k].equalsIgnoreCase(md.getColumnLabel(i)))
+					keys[k] = i;
+			if (keys[k] == 0)
+				throw new IllegalArgumentException("Keyset column not found: " + keyset.columns[k]);
+		}
+
+		boolean scalar = signature.returnsPrimitive;
+		Class<?> targetClass = signature.component;
+
+		// Scalars are taken from the first column, the others being keys.
+		if (scalar)
+			for (int i = 2; i <= columnCount; i++) {
+				int column = i;
+				if (!Arrays.stream(keys).anyMatch(k -> k == column))
+					throw new IllegalArgumentException("Couldn't unbox. Have more than one column: " + columnCount);
+			}
+
+		RowMapper mapper = scalar ? null : mapperFor(targetClass);
+
+		List<Object> list = new ArrayList<>(initialCapacity());
+		Object[] last = new Object[keys.length];
+
+		while (rs.next()) {
+
+			if (scalar)
+				list.add(config.coercions().coerce(rs.getObject(1), targetClass));
+			else {
+				Object object = targetClass.newInstance();
+				mapper.map(rs, object, lobs);
+				list.add(onEach.onEach(targetClass, object));
+			}
+
+			for (int k = 0; k < keys.length; k++)
+				last[k] = rs.getObject(keys[k]);
+		}
+
+		recordRows(list.size());
+
+		boolean more = !list.isEmpty() && (pageSize < 0 || list.size() >= pageSize);
+
+		return new Page<>(list, more ? keyset.encode(last) : null);
+	}
+
+	/**
+	 * Maps the rows of a batched child, grouped by the value of the join column.
+	 * Scalars are taken from the other column.
+	 */
+	Map<Object, List<Object>> groupBy(String joinColumn, Signature signature, OnEach onEach) throws Exception {
+
+		int join = 0;
+		for (int i = 1; i <= columnCount && join == 0; i++)
+			if (joinColumn.equalsIgnoreCase(rs.getMetaData().getColumnLabel(i)))
+				join = i;
+
+		if (join == 0)
+			throw new IllegalArgumentException("Join column not found: " + joinColumn);
+
+		if (signature.returnsPrimitiveArray)
+			throw new IllegalArgumentException("Batched children can't be primitive arrays: " + signature);
+
+		boolean scalar = signature.returnsPrimitive;
+		Class<?> targetClass = signature.returnsList ? signature.component : signature.returnType;
+
+		if (scalar && columnCount != 2)
+			throw new IllegalArgumentException("Couldn't unbox. Have more than one column: " + (columnCount - 1));
+
+		// The join column only belongs to the parent, unless the child has it too.
+		RowMapper mapper = scalar ? null : mapperFor(targetClass, join);
+		int column = join == 1 ? 2 : 1;
+
+		Map<Object, List<Object>> groups = new HashMap<>();
+		int rows = 0;
+		while (rs.next()) {
+
+			rows++;
+
+			Object value;
+			if (scalar)
+				value = config.coercions().coerce(rs.getObject(column), targetClass);
+			else {
+				value = targetClass.newInstance();
+				mapper.map(rs, value, lobs);
+				value = onEach.onEach(targetClass, value);
+			}
+
+			groups.computeIfAbsent(joinKey(rs.getObject(join)), k -> new ArrayList<>()).add(value);
+		}
+
+		recordRows(rows);
+
+		return groups;
+	}
+
+	/**
+	 * Normalizes join keys, so that integral keys of different types match.
+	 */
+	static Object joinKey(Object key) {
+		if (key instanceof Integer || key instanceof Long || key instanceof Short || key instanceof Byte)
+			return ((Number) key).longValue();
+		return key;
+	}
+
+	public Object toReturnTypeOf(Signature signature, OnEach onEach, Object currentValue) throws Exception {
+
+		Class<?> type = signature.returnType;
 
-		Class<?> type = method.getReturnType();
+		if (signature.returnsPrimitiveArray)
+			return asArrayOf(type);
 
-		if (!Methods.returnsList(method)) {
-			if (Methods.returnsPrimitive(method))
+		if (!signature.returnsList) {
+			if (signature.returnsPrimitive)
 				return asScalarOf(type);
 			return asOneOf(type, onEach, currentValue);
 		}
 
-		if (Methods.returnsPrimitive(method))
-			return asScalarListOf(Methods.getReturningTypeComponent(method));
+		if (signature.returnsPrimitive)
+			return asScalarListOf(signature.component);
 
-		return asListOf(Methods.getReturningTypeComponent(method), onEach);
+		return asListOf(signature.component, onEach);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,174 @@
+package io.github.mschonaker.bundler;
+
+import java.lang.reflect.Array;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Logs the executions taking longer than a threshold, with their SQL, bound
+ * values, rows and the time of each phase, as warnings.
+ *
+ * The threshold of a bundle can be changed with its {@code slowThreshold}
+ * attribute, in milliseconds. To keep the log itself from becoming a hotspot
+ * when everything is slow, slow executions may be sampled and the entries
+ * per second limited; those not logged are counted in the next entry.
+ *
+ * @author mschonaker
+ */
+public class SlowQueryLog implements ExecutionListener {
+
+	private static final int MAX_VALUE_LENGTH = 100;
+
+	private final long thresholdNanos;
+	private double sampleRate = 1;
+	private int maxPerSecond = Integer.MAX_VALUE;
+	private Logger logger = Logger.getLogger(SlowQueryLog.class.getName());
+
+	private final AtomicLong second = new AtomicLong();
+	private final AtomicInteger logged = new AtomicInteger();
+	private final LongAdder skipped = new LongAdder();
+
+	public SlowQueryLog(long thresholdMillis) {
+		if (thresholdMillis < 0)
+			throw new IllegalArgumentException("thresholdMillis");
+		this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+	}
+
+	/**
+	 * Logs only this fraction of the slow executions, 1 by default.
+	 */
+	public SlowQueryLog sampleRate(double rate) {
+		if (!(rate > 0 && rate <= 1))
+			throw new IllegalArgumentException("rate");
+		this.sampleRate = rate;
+		return this;
+	}
+
+	/**
+	 * Logs at most this many entries per second, unlimited by default.
+	 */
+	public SlowQueryLog maxPerSecond(int max) {
+		if (max <= 0)
+			throw new IllegalArgumentException("max");
+		this.maxPerSecond = max;
+		return this;
+	}
+
+	public SlowQueryLog logger(Logger logger) {
+		this.logger = logger;
+		return this;
+	}
+
+	@Override
+	public void executed(Execution execution) {
+
+		int threshold = execution.getSlowThreshold();
+		if (execution.getTotalNanos() < (threshold < 0 ? thresholdNanos : TimeUnit.MILLISECONDS.toNanos(threshold)))
+			return;
+
+		if (!logger.isLoggable(Level.WARNING))
+			return;
+
+		if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+			skipped.increment();
+			return;
+		}
+
+		if (!acquire()) {
+			skipped.increment();
+			return;
+		}
+
+		logger.warning(format(execution, skipped.sumThenReset()));
+	}
+
+	private boolean acquire() {
+
+		long now = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+		long current = second.get();
+
+		if (now != current && second.compareAndSet(current, now))
+			logged.set(0);
+
+		return logged.incrementAndGet() <= maxPerSecond;
+	}
+
+	private static String format(Execution execution, long skipped) {
+
+		StringBuilder sb = new StringBuilder("Slow bundle ").append(execution.getPath()).append(": ");
+		millis(sb, execution.getTotalNanos()).append(", ");
+
+		if (execution.getRows() >= 0)
+			sb.append(execution.getRows()).append(" rows");
+		else if (execution.getUpdateCount() >= 0)
+			sb.append(execution.getUpdateCount()).append(" updated");
+		else
+			sb.append("no rows");
+
+		if (execution.getGeneratedKeys() >= 0)
+			sb.append(", ").append(execution.getGeneratedKeys()).append(" keys");
+
+		if (execution.getFailure() != null)
+			sb.append(", failed: ").append(execution.getFailure());
+
+		sb.append("\n\tsql: ").append(execution.getSql());
+
+		Object[] values = execution.getValues();
+		if (values != null) {
+			sb.append("\n\tvalues: [");
+			for (int i = 0; i < values.length; i++)
+				value(i == 0 ? sb : sb.append(", "), values[i]);
+			sb.append(']');
+		}
+
+		sb.append("\n\t");
+		for (Execution.Phase phase : Execution.Phase.values())
+			millis(sb.append(phase.name().toLowerCase()).append(' '), execution.getNanos(phase))
+					.append(phase.ordinal() < Execution.Phase.values().length - 1 ? ", " : "");
+
+		if (skipped > 0)
+			sb.append("\n\t").append(skipped).append(" slow executions not logged before this one");
+
+		return sb.toString();
+	}
+
+	private static StringBuilder millis(StringBuilder sb, long nanos) {
+		return sb.append(String.format("%.3f ms", nanos / 1e6));
+	}
+
+	/**
+	 * Appends the value, abbreviated, as it may be a large text or binary.
+	 */
+	private static void value(StringBuilder sb, Object value) {
+
+		if (value == null) {
+			sb.append("null");
+			return;
+		}
+
+		if (value.getClass().isArray()) {
+			sb.append(value.getClass().getComponentType().getSimpleName()).append('[').append(Array.getLength(value))
+					.append(']');
+			return;
+		}
+
+		String s = String.valueOf(value);
+
+		boolean quoted = value instanceof CharSequence;
+		if (quoted)
+			sb.append('\'');
+
+		if (s.length() <= MAX_VALUE_LENGTH)
+			sb.append(s);
+		else
+			sb.append(s, 0, MAX_VALUE_LENGTH).append("...");
+
+		if (quoted)
+			sb.append('\'');
+	}
+}
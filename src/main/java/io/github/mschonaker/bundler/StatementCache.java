@@ -0,0 +1,162 @@
+package io.github.mschonaker.bundler;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A least recently used cache of {@link PreparedStatement}s, attached to a
+ * transaction and thus to its connection.
+ *
+ * @author mschonaker
+ */
+class StatementCache implements AutoCloseable {
+
+	/**
+	 * A statement leased from the cache. Closing it returns it to the cache,
+	 * reset, as the next lessee may be another bundle with the same SQL.
+	 */
+	static class Lease implements AutoCloseable {
+
+		final PreparedStatement ps;
+		private final boolean cached;
+		private boolean busy;
+		private boolean evicted;
+
+		Lease(PreparedStatement ps, boolean cached) {
+			this.ps = ps;
+			this.cached = cached;
+		}
+
+		@Override
+		public void close() throws SQLException {
+
+			busy = false;
+
+			if (!cached || evicted) {
+				ps.close();
+				return;
+			}
+
+			try {
+
+				ps.clearParameters();
+				ps.clearBatch();
+				ps.setMaxRows(0);
+				ps.setFetchSize(0);
+
+			} catch (SQLException e) {
+				evicted = true;
+				ps.close();
+				throw e;
+			}
+		}
+	}
+
+	private static class Key {
+
+		final String sql;
+		final int autoGeneratedKeys;
+
+		Key(String sql, int autoGeneratedKeys) {
+			this.sql = sql;
+			this.autoGeneratedKeys = autoGeneratedKeys;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * sql.hashCode() + autoGeneratedKeys;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (!(obj instanceof Key))
+				return false;
+			Key other = (Key) obj;
+			return autoGeneratedKeys == other.autoGeneratedKeys && sql.equals(other.sql);
+		}
+	}
+
+	private final int size;
+	private final Map<Key, Lease> leases;
+
+	StatementCache(int size) {
+
+		this.size = size;
+
+		leases = new LinkedHashMap<Key, Lease>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Lease> eldest) {
+
+				if (size() <= StatementCache.this.size)
+					return false;
+
+				evict(eldest.getValue());
+				return true;
+			}
+		};
+	}
+
+	/**
+	 * Leases a statement for the SQL. A statement already leased, e.g. by a
+	 * parent bundle with the same SQL, isn't shared: a new one is prepared.
+	 */
+	Lease prepare(Connection connection, String sql, int autoGeneratedKeys, Config config) throws SQLException {
+
+		Key key = new Key(sql, autoGeneratedKeys);
+
+		Lease lease = leases.get(key);
+
+		if (lease != null && lease.evicted && !lease.busy) {
+			leases.remove(key);
+			lease = null;
+		}
+
+		if (lease != null && !lease.busy) {
+			config.statementCacheHit();
+			lease.busy = true;
+			return lease;
+		}
+
+		config.statementCacheMiss();
+
+		PreparedStatement ps = connection.prepareStatement(sql, autoGeneratedKeys);
+
+		if (lease != null)
+			return new Lease(ps, false);
+
+		lease = new Lease(ps, true);
+		lease.busy = true;
+		leases.put(key, lease);
+
+		return lease;
+	}
+
+	private static void evict(Lease lease) {
+
+		lease.evicted = true;
+
+		if (!lease.busy)
+			try {
+				lease.ps.close();
+			} catch (SQLException e) {
+				// Ignored. The connection will close it anyway.
+			}
+	}
+
+	@Override
+	public void close() {
+
+		for (Lease lease : leases.values())
+			evict(lease);
+
+		leases.clear();
+	}
+}
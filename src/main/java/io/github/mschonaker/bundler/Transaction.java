@@ -1,9 +1,31 @@
 package io.github.mschonaker.bundler;
 
+import java.util.concurrent.Callable;
+
+/**
+ * A transaction, bound to the thread that started it.
+ *
+ * Threads don't inherit transactions. To take part in a transaction from
+ * another thread, e.g. from an executor, wrap the task: while it runs, the
+ * thread joins the transaction and its connection, which is used by one
+ * thread at a time. The wrapped task must run before the transaction ends.
+ */
 public interface Transaction extends AutoCloseable {
 
 	void success();
 
+	/**
+	 * Wraps the task, so that it runs within this transaction, whatever the
+	 * thread.
+	 */
+	Runnable wrap(Runnable task);
+
+	/**
+	 * Wraps the task, so that it runs within this transaction, whatever the
+	 * thread.
+	 */
+	<T> Callable<T> wrap(Callable<T> task);
+
 	@Override
 	public void close();
 
@@ -2,6 +2,10 @@ package io.github.mschonaker.bundler.loader;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import io.github.mschonaker.bundler.utils.ResultCache;
+import io.github.mschonaker.bundler.utils.RowMapper;
 
 /**
  * A very simple class containing bundle configuration.
@@ -10,14 +14,191 @@ import java.util.Map;
  */
 public class Bundle {
 
+	/**
+	 * What the SQL of a bundle is.
+	 */
+	public static enum Kind {
+
+		/**
+		 * Not classified yet: observed on the first execution.
+		 */
+		UNKNOWN,
+
+		/**
+		 * Returns a result set.
+		 */
+		QUERY,
+
+		/**
+		 * Returns an update count, and maybe generated keys.
+		 */
+		UPDATE
+	}
+
+	private static final int MAX_ADAPTIVE_FETCH_SIZE = 5000;
+
+	public static final int DEFAULT_CACHE_SIZE = 1000;
+
 	public String name;
 
+	/**
+	 * The names from the top level bundle, separated by dots.
+	 */
+	public String path;
+
 	public String sql;
 
 	public List<String> expressions;
 
+	public Expression[] parameters;
+
+	/**
+	 * The offsets in {@link #sql} of the placeholders of each parameter.
+	 */
+	public int[] placeholders;
+
+	/**
+	 * For batched children, the property of the parent objects and the column
+	 * of the child rows they're joined by. See the {@code join} attribute.
+	 */
+	public String joinProperty;
+
+	public String joinColumn;
+
 	public Map<String, Bundle> children;
 
+	/**
+	 * Whether the bundle is executed as a JDBC batch, once per element of the
+	 * {@code Iterable} first argument. See the {@code batch} attribute.
+	 */
+	public boolean batch;
+
+	/**
+	 * Whether the children of a bundle without SQL are executed concurrently,
+	 * each on its own connection. See the {@code parallel} attribute.
+	 */
+	public boolean parallel;
+
+	/**
+	 * Whether the children of a bundle without SQL are executed as a single
+	 * statement returning multiple result sets. See the {@code multi}
+	 * attribute.
+	 */
+	public boolean multi;
+
+	/**
+	 * For keyset paginated bundles, the ordering key, and the arguments with
+	 * the token of the previous page and the page size, if any. See the
+	 * {@code keyset}, {@code after} and {@code pageSize} attributes.
+	 */
+	public Keyset keyset;
+
+	public Expression after;
+
+	public Expression pageSize;
+
+	/**
+	 * Classified by the leading keyword of {@link #sql} when loaded or else by
+	 * its first execution.
+	 */
+	public volatile Kind kind = Kind.UNKNOWN;
+
+	/**
+	 * The statement fetch size, 0 for the driver default. See the
+	 * {@code fetchSize} attribute, where {@code auto} sets
+	 * {@link #adaptiveFetchSize}.
+	 */
+	public int fetchSize;
+
+	public boolean adaptiveFetchSize;
+
+	/**
+	 * The statement max rows, 0 for no limit. See the {@code maxRows}
+	 * attribute.
+	 */
+	public int maxRows;
+
+	/**
+	 * Executions taking longer are logged by the slow query log, in
+	 * milliseconds, -1 for its default threshold. See the
+	 * {@code slowThreshold} attribute.
+	 */
+	public int slowThreshold = -1;
+
+	/**
+	 * The results cached, 0 if not cached, and for how long, in milliseconds,
+	 * 0 for ever. See the {@code cache}, {@code cacheSize} and
+	 * {@code cacheTtl} attributes.
+	 */
+	public int cacheSize;
+
+	public int cacheTtl;
+
+	/**
+	 * The tables the cached results are read from, and those written by the
+	 * bundle, in lower case. See the {@code tables} and {@code invalidates}
+	 * attributes.
+	 */
+	public String[] tables;
+
+	public String[] invalidates;
+
+	private volatile ResultCache results;
+
+	/**
+	 * A running estimate of the rows returned by each execution, -1 until
+	 * executed.
+	 */
+	public volatile int estimatedRows = -1;
+
+	/**
+	 * The row mapping plans compiled so far, one per target class and column
+	 * layout.
+	 */
+	public final List<RowMapper> mappers = new CopyOnWriteArrayList<>();
+
+	/**
+	 * Records the rows of an execution into the running estimate.
+	 */
+	public void recordRows(int rows) {
+		int estimate = estimatedRows;
+		estimatedRows = estimate < 0 ? rows : (int) ((3L * estimate + rows + 3) / 4);
+	}
+
+	/**
+	 * Returns the fetch size for the next execution, or 0 for the driver
+	 * default. Adaptive bundles fetch their estimated rows in a single round
+	 * trip, up to a limit.
+	 */
+	public int fetchSizeHint() {
+
+		if (fetchSize > 0)
+			return fetchSize;
+
+		int estimate = estimatedRows;
+		if (!adaptiveFetchSize || estimate < 0)
+			return 0;
+
+		return Math.min(MAX_ADAPTIVE_FETCH_SIZE, estimate + 1);
+	}
+
+	/**
+	 * Returns the cache of the results, created on first use, or null if not
+	 * cached.
+	 */
+	public ResultCache results() {
+
+		ResultCache cache = results;
+		if (cache != null || cacheSize == 0)
+			return cache;
+
+		synchronized (this) {
+			if (results == null)
+				results = new ResultCache(cacheSize, cacheTtl, tables);
+			return results;
+		}
+	}
+
 	@Override
 	public String toString() {
 		return "Bundle [name=" + name + ", sql=" + sql + ", expressions=" + expressions + ", children=" + children + "]";
@@ -0,0 +1,340 @@
+package io.github.mschonaker.bundler.loader;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * A binary form of the bundles of a {@code -bundler.xml} file, with the
+ * expressions already extracted, so that loading it is reading fields. It's
+ * stored as a {@code -bundler.bin} resource next to the XML one.
+ *
+ * The catalogs are compiled at build time by {@link #main(String[])}. They
+ * carry the checksum of the XML they were compiled from, so that stale ones
+ * are told apart.
+ *
+ * @author mschonaker
+ */
+public final class BundleCatalog {
+
+	public static final String EXTENSION = ".bin";
+
+	private static final int MAGIC = 0x424e444c;
+	private static final int VERSION = 6;
+
+	private BundleCatalog() {
+	}
+
+	// ---------------------------------------------------------------------
+	// Writing.
+
+	/**
+	 * Returns the checksum of the source XML, as stored in the catalogs.
+	 */
+	public static long checksum(byte[] xml) {
+		CRC32 crc = new CRC32();
+		crc.update(xml, 0, xml.length);
+		return crc.getValue();
+	}
+
+	/**
+	 * Writes the bundles, compiled from the XML with the checksum.
+	 */
+	public static void write(Map<String, Bundle> bundles, long checksum, OutputStream out) throws IOException {
+
+		DataOutputStream data = new DataOutputStream(out);
+
+		data.writeInt(MAGIC);
+		data.writeInt(VERSION);
+		data.writeLong(checksum);
+		writeBundles(data, bundles);
+
+		data.flush();
+	}
+
+	private static void writeBundles(DataOutputStream out, Map<String, Bundle> bundles) throws IOException {
+
+		if (bundles == null) {
+			out.writeInt(-1);
+			return;
+		}
+
+		out.writeInt(bundles.size());
+		for (Bundle bundle : bundles.values())
+			writeBundle(out, bundle);
+	}
+
+	private static void writeBundle(DataOutputStream out, Bundle bundle) throws IOException {
+
+		writeString(out, bundle.name);
+		writeString(out, bundle.sql);
+		out.writeByte(bundle.kind.ordinal());
+
+		if (bundle.expressions == null)
+			out.writeInt(-1);
+		else {
+			out.writeInt(bundle.expressions.size());
+			for (int i = 0; i < bundle.expressions.size(); i++) {
+				writeString(out, bundle.expressions.get(i));
+				out.writeInt(bundle.placeholders[i]);
+			}
+		}
+
+		writeString(out, bundle.joinProperty);
+		writeString(out, bundle.joinColumn);
+		out.writeBoolean(bundle.batch);
+		out.writeBoolean(bundle.parallel);
+		out.writeBoolean(bundle.multi);
+		writeString(out, bundle.keyset == null ? null : bundle.keyset.spec);
+		writeString(out, bundle.after == null ? null : bundle.after.source);
+		writeString(out, bundle.pageSize == null ? null : bundle.pageSize.source);
+		out.writeInt(bundle.fetchSize);
+		out.writeBoolean(bundle.adaptiveFetchSize);
+		out.writeInt(bundle.maxRows);
+		out.writeInt(bundle.slowThreshold);
+		out.writeInt(bundle.cacheSize);
+		out.writeInt(bundle.cacheTtl);
+		writeStrings(out, bundle.tables);
+		writeStrings(out, bundle.invalidates);
+
+		writeBundles(out, bundle.children);
+	}
+
+	private static void writeStrings(DataOutputStream out, String[] values) throws IOException {
+
+		if (values == null) {
+			out.writeInt(-1);
+			return;
+		}
+
+		out.writeInt(values.length);
+		for (String value : values)
+			writeString(out, value);
+	}
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+
+		if (value == null) {
+			out.writeInt(-1);
+			return;
+		}
+
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	// ---------------------------------------------------------------------
+	// Reading.
+
+	/**
+	 * Reads the bundles of the catalog into the map, replacing those with the
+	 * same names, like {@link BundleLoader#load(Map, Reader)}. Returns false,
+	 * reading nothing, if it isn't a catalog compiled by this version, or it's
+	 * corrupted, so that the XML is parsed instead.
+	 */
+	public static boolean read(Map<String, Bundle> bundles, ByteBuffer in) {
+		return read(bundles, in, false, 0);
+	}
+
+	/**
+	 * Like {@link #read(Map, ByteBuffer)}, but also returns false if the
+	 * catalog wasn't compiled from the XML with the checksum, i.e. it's stale.
+	 */
+	public static boolean read(Map<String, Bundle> bundles, ByteBuffer in, long checksum) {
+		return read(bundles, in, true, checksum);
+	}
+
+	private static boolean read(Map<String, Bundle> bundles, ByteBuffer in, boolean check, long checksum) {
+
+		try {
+
+			if (in.getInt() != MAGIC || in.getInt() != VERSION)
+				return false;
+
+			long source = in.getLong();
+			if (check && source != checksum)
+				return false;
+
+			Map<String, Bundle> read = readBundles(in, null);
+			if (read != null)
+				bundles.putAll(read);
+
+			return true;
+
+		} catch (RuntimeException e) {
+			// Truncated or otherwise corrupted.
+			return false;
+		}
+	}
+
+	private static Map<String, Bundle> readBundles(ByteBuffer in, String path) {
+
+		int size = in.getInt();
+		if (size < 0)
+			return null;
+
+		Map<String, Bundle> bundles = new LinkedHashMap<>();
+		for (int i = 0; i < size; i++) {
+			Bundle bundle = readBundle(in, path);
+			bundles.put(bundle.name, bundle);
+		}
+
+		return bundles;
+	}
+
+	private static Bundle readBundle(ByteBuffer in, String path) {
+
+		Bundle bundle = new Bundle();
+
+		bundle.name = readString(in);
+		bundle.path = path == null ? bundle.name : path + "." + bundle.name;
+		bundle.sql = readString(in);
+		bundle.kind = Bundle.Kind.values()[in.get()];
+
+		int expressions = in.getInt();
+		if (expressions >= 0) {
+
+			bundle.expressions = new ArrayList<>(expressions);
+			bundle.parameters = new Expression[expressions];
+			bundle.placeholders = new int[expressions];
+
+			for (int i = 0; i < expressions; i++) {
+				String expression = readString(in);
+				bundle.expressions.add(expression);
+				bundle.parameters[i] = Expression.compile(expression);
+				bundle.placeholders[i] = in.getInt();
+			}
+		}
+
+		bundle.joinProperty = readString(in);
+		bundle.joinColumn = readString(in);
+		bundle.batch = in.get() != 0;
+		bundle.parallel = in.get() != 0;
+		bundle.multi = in.get() != 0;
+
+		String keyset = readString(in);
+		if (keyset != null)
+			bundle.keyset = Keyset.parse(keyset);
+
+		String after = readString(in);
+		if (after != null)
+			bundle.after = Expression.compile(after);
+
+		String pageSize = readString(in);
+		if (pageSize != null)
+			bundle.pageSize = Expression.compile(pageSize);
+		bundle.fetchSize = in.getInt();
+		bundle.adaptiveFetchSize = in.get() != 0;
+		bundle.maxRows = in.getInt();
+		bundle.slowThreshold = in.getInt();
+		bundle.cacheSize = in.getInt();
+		bundle.cacheTtl = in.getInt();
+		bundle.tables = readStrings(in);
+		bundle.invalidates = readStrings(in);
+
+		bundle.children = readBundles(in, bundle.path);
+
+		return bundle;
+	}
+
+	private static String[] readStrings(ByteBuffer in) {
+
+		int length = in.getInt();
+		if (length < 0)
+			return null;
+
+		String[] values = new String[length];
+		for (int i = 0; i < length; i++)
+			values[i] = readString(in);
+
+		return values;
+	}
+
+	private static String readString(ByteBuffer in) {
+
+		int length = in.getInt();
+		if (length < 0)
+			return null;
+
+		String value;
+		if (in.hasArray()) {
+			value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+			in.position(in.position() + length);
+		} else {
+			byte[] bytes = new byte[length];
+			in.get(bytes);
+			value = new String(bytes, StandardCharsets.UTF_8);
+		}
+
+		return value;
+	}
+
+	// ---------------------------------------------------------------------
+	// Compiling.
+
+	/**
+	 * Compiles the {@code -bundler.xml} file into a catalog next to it, named
+	 * after it but ending in {@code .bin}.
+	 */
+	public static Path compile(Path xml) throws Exception {
+
+		byte[] source = Files.readAllBytes(xml);
+
+		Map<String, Bundle> bundles = new LinkedHashMap<>();
+
+		try (Reader reader = new InputStreamReader(new ByteArrayInputStream(source), StandardCharsets.UTF_8)) {
+			BundleLoader.load(bundles, reader);
+		}
+
+		String name = xml.getFileName().toString();
+		Path bin = xml.resolveSibling(name.substring(0, name.length() - ".xml".length()) + EXTENSION);
+
+		try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(bin))) {
+			write(bundles, checksum(source), out);
+		}
+
+		return bin;
+	}
+
+	/**
+	 * Compiles all the {@code -bundler.xml} files in the given directories,
+	 * typically {@code target/classes}, e.g. from the {@code process-classes}
+	 * phase with the exec-maven-plugin.
+	 */
+	public static void main(String[] args) throws Exception {
+
+		if (args.length == 0) {
+			System.err.println("Usage: BundleCatalog <directory>...");
+			System.exit(1);
+		}
+
+		for (String arg : args) {
+
+			List<Path> files;
+			try (Stream<Path> walk = Files.walk(Paths.get(arg))) {
+				files = walk.filter(p -> p.getFileName().toString().endsWith("-bundler.xml"))
+						.collect(Collectors.toList());
+			}
+
+			for (Path file : files)
+				System.out.println("Compiled " + compile(file));
+		}
+	}
+}
@@ -1,10 +1,13 @@
 package io.github.mschonaker.bundler.loader;
 
 import java.io.Reader;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.Stack;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -49,7 +52,10 @@ public class BundleLoader {
 
 			} else {
 
+				attributes(bundle, attributes);
+
 				Bundle parent = stack.peek();
+				bundle.path = stack.size() == 1 ? bundle.name : parent.path + "." + bundle.name;
 				flushText(parent);
 				if (parent.children == null)
 					parent.children = new LinkedHashMap<String, Bundle>();
@@ -66,11 +72,97 @@ public class BundleLoader {
 				Bundle bundle = stack.pop();
 				flushText(bundle);
 				extractExpressions(bundle);
+
+				if (bundle.keyset != null && (bundle.parameters == null
+						|| !Arrays.stream(bundle.parameters).anyMatch(Expression::isKeyset)))
+					throw new SAXException("Missing ${keyset} in \"" + bundle.name + "\"");
+
+				// Joined children run once for all of the parents.
+				if (bundle.joinProperty != null && bundle.parameters != null
+						&& Arrays.stream(bundle.parameters).anyMatch(Expression::usesParent))
+					throw new SAXException("${parent} can't be used in the joined \"" + bundle.name + "\"");
 			}
 
 			text.delete(0, text.length());
 		}
 
+		private void attributes(Bundle bundle, Attributes attributes) throws SAXException {
+
+			String join = attributes.getValue("join");
+			if (join != null) {
+				int i = join.indexOf('=');
+				bundle.joinProperty = (i < 0 ? join : join.substring(0, i)).trim();
+				bundle.joinColumn = (i < 0 ? join : join.substring(i + 1)).trim();
+			}
+
+			bundle.batch = "true".equals(attributes.getValue("batch"));
+			bundle.parallel = "true".equals(attributes.getValue("parallel"));
+			bundle.multi = "true".equals(attributes.getValue("multi"));
+
+			String keyset = attributes.getValue("keyset");
+			if (keyset != null)
+				try {
+					bundle.keyset = Keyset.parse(keyset);
+				} catch (IllegalArgumentException e) {
+					throw new SAXException("Invalid keyset for \"" + bundle.name + "\": " + keyset, e);
+				}
+
+			String after = attributes.getValue("after");
+			if (after != null)
+				bundle.after = Expression.compile(after);
+
+			String pageSize = attributes.getValue("pageSize");
+			if (pageSize != null)
+				bundle.pageSize = Expression.compile(pageSize);
+
+			String fetchSize = attributes.getValue("fetchSize");
+			if ("auto".equals(fetchSize))
+				bundle.adaptiveFetchSize = true;
+			else if (fetchSize != null)
+				bundle.fetchSize = toInt(bundle, "fetchSize", fetchSize);
+
+			String maxRows = attributes.getValue("maxRows");
+			if (maxRows != null)
+				bundle.maxRows = toInt(bundle, "maxRows", maxRows);
+
+			String slowThreshold = attributes.getValue("slowThreshold");
+			if (slowThreshold != null)
+				bundle.slowThreshold = toInt(bundle, "slowThreshold", slowThreshold);
+
+			String cacheSize = attributes.getValue("cacheSize");
+			if (cacheSize != null)
+				bundle.cacheSize = toInt(bundle, "cacheSize", cacheSize);
+			else if ("true".equals(attributes.getValue("cache")))
+				bundle.cacheSize = Bundle.DEFAULT_CACHE_SIZE;
+
+			String cacheTtl = attributes.getValue("cacheTtl");
+			if (cacheTtl != null)
+				bundle.cacheTtl = toInt(bundle, "cacheTtl", cacheTtl);
+
+			bundle.tables = toTables(attributes.getValue("tables"));
+			bundle.invalidates = toTables(attributes.getValue("invalidates"));
+		}
+
+		private static String[] toTables(String value) {
+
+			if (value == null)
+				return null;
+
+			return Arrays.stream(value.split(",")).map(t -> t.trim().toLowerCase()).filter(t -> !t.isEmpty())
+					.toArray(String[]::new);
+		}
+
+		private static int toInt(Bundle bundle, String name, String value) throws SAXException {
+			try {
+				int i = Integer.parseInt(value.trim());
+				if (i < 0)
+					throw new NumberFormatException(value);
+				return i;
+			} catch (NumberFormatException e) {
+				throw new SAXException("Invalid " + name + " for \"" + bundle.name + "\": " + value, e);
+			}
+		}
+
 		private void flushText(Bundle bundle) {
 
 			String t = text.toString().trim();
@@ -95,6 +187,7 @@ public class BundleLoader {
 			return;
 
 		List<String> expressions = new LinkedList<String>();
+		List<Integer> placeholders = new LinkedList<Integer>();
 		StringBuilder sb = new StringBuilder();
 
 		int replacedStart = 0;
@@ -106,6 +199,7 @@ public class BundleLoader {
 			int end = matcher.end();
 
 			sb.append(bundle.sql.substring(replacedStart, start));
+			placeholders.add(sb.length());
 			sb.append('?');
 			replacedStart = end;
 
@@ -119,8 +213,64 @@ public class BundleLoader {
 		if (!sql.isEmpty())
 			bundle.sql = sql;
 
-		if (!expressions.isEmpty())
+		bundle.kind = classify(bundle.sql);
+
+		if (!expressions.isEmpty()) {
+			int trimmed = sb.indexOf(sql);
 			bundle.expressions = expressions;
+			bundle.parameters = expressions.stream().map(Expression::compile).toArray(Expression[]::new);
+			bundle.placeholders = placeholders.stream().mapToInt(i -> i - trimmed).toArray();
+		}
+	}
+
+	private static final Set<String> QUERIES = new HashSet<>(
+			Arrays.asList("select", "values", "table", "show", "explain", "describe"));
+
+	private static final Set<String> UPDATES = new HashSet<>(Arrays.asList("insert", "update", "delete", "merge",
+			"upsert", "replace", "create", "alter", "drop", "truncate", "rename", "comment", "grant", "revoke"));
+
+	private static final Pattern RETURNING_PATTERN = Pattern.compile("\\breturning\\b", Pattern.CASE_INSENSITIVE);
+
+	/**
+	 * Classifies the SQL by its leading keyword, skipping comments and
+	 * parentheses. Anything else, e.g. {@code with} or {@code call}, which may
+	 * be either, is left unknown, as well as updates returning rows.
+	 */
+	public static Bundle.Kind classify(String sql) {
+
+		int i = 0;
+		int length = sql.length();
+
+		while (i < length) {
+
+			char c = sql.charAt(i);
+
+			if (Character.isWhitespace(c) || c == '(')
+				i++;
+			else if (sql.startsWith("--", i)) {
+				int end = sql.indexOf('\n', i);
+				i = end < 0 ? length : end + 1;
+			} else if (sql.startsWith("/*", i)) {
+				int end = sql.indexOf("*/", i + 2);
+				i = end < 0 ? length : end + 2;
+			} else
+				break;
+		}
+
+		int start = i;
+		while (i < length && Character.isLetter(sql.charAt(i)))
+			i++;
+
+		String keyword = sql.substring(start, i).toLowerCase();
+
+		if (QUERIES.contains(keyword))
+			return Bundle.Kind.QUERY;
+
+		// E.g. insert ... returning, which returns a result set.
+		if (UPDATES.contains(keyword) && !RETURNING_PATTERN.matcher(sql).find())
+			return Bundle.Kind.UPDATE;
+
+		return Bundle.Kind.UNKNOWN;
 	}
 
 	public static void load(Map<String, Bundle> bundles, Reader reader) throws Exception {
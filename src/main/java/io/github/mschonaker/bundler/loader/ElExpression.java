@@ -0,0 +1,51 @@
+package io.github.mschonaker.bundler.loader;
+
+import java.util.regex.Pattern;
+
+import javax.el.ELContext;
+import javax.el.ELResolver;
+import javax.el.ExpressionFactory;
+import javax.el.ValueExpression;
+
+import de.odysseus.el.ExpressionFactoryImpl;
+import de.odysseus.el.ExpressionFactoryImpl.Profile;
+import de.odysseus.el.util.SimpleContext;
+import de.odysseus.el.util.SimpleResolver;
+
+/**
+ * Fallback for expressions that aren't simple paths. Parsed once, evaluated
+ * with EL every time.
+ *
+ * @author mschonaker
+ */
+class ElExpression extends Expression {
+
+	private static final ExpressionFactory FACTORY = new ExpressionFactoryImpl(Profile.JEE6, null);
+
+	private static final Pattern PARENT_PATTERN = Pattern.compile("\\bparent\\b");
+
+	private final ValueExpression expression;
+
+	ElExpression(String source) {
+		super(source);
+		expression = FACTORY.createValueExpression(new SimpleContext(), "${" + source + "}", Object.class);
+	}
+
+	@Override
+	public Object evaluate(Object[] params, Object param, Object parent) {
+
+		ELContext context = new SimpleContext(new SimpleResolver());
+
+		ELResolver resolver = context.getELResolver();
+		resolver.setValue(context, null, "params", params);
+		resolver.setValue(context, null, "param", param);
+		resolver.setValue(context, null, "parent", parent);
+
+		return expression.getValue(context);
+	}
+
+	@Override
+	public boolean usesParent() {
+		return PARENT_PATTERN.matcher(source).find();
+	}
+}
@@ -0,0 +1,291 @@
+package io.github.mschonaker.bundler.loader;
+
+import java.lang.reflect.Array;
+import java.util.List;
+import java.util.Map;
+
+import io.github.mschonaker.bundler.utils.Beans;
+import io.github.mschonaker.bundler.utils.Property;
+
+/**
+ * A parameter expression, compiled once when the bundle is loaded.
+ *
+ * Simple paths like {@code params[0]}, {@code param.username} or
+ * {@code parent.username} are resolved as chains of index and property
+ * accessors. Anything else is evaluated with the Expression Language.
+ *
+ * @author mschonaker
+ */
+public abstract class Expression {
+
+	public final String source;
+
+	Expression(String source) {
+		this.source = source;
+	}
+
+	/**
+	 * Evaluates the expression against the method arguments, {@code params},
+	 * its alias {@code param} and the {@code parent} object.
+	 */
+	public abstract Object evaluate(Object[] params, Object param, Object parent);
+
+	/**
+	 * Tells whether this is the {@code keys} expression of batched children,
+	 * which expands to one placeholder per parent key.
+	 */
+	public boolean isKeys() {
+		return false;
+	}
+
+	/**
+	 * Tells whether the expression refers to the {@code parent} object.
+	 */
+	public boolean usesParent() {
+		return false;
+	}
+
+	/**
+	 * Tells whether this is the {@code keyset} expression of keyset paginated
+	 * bundles, which expands to the predicate after the previous page.
+	 */
+	public boolean isKeyset() {
+		return false;
+	}
+
+	@Override
+	public String toString() {
+		return source;
+	}
+
+	public static Expression compile(String source) {
+
+		Expression compiled = compilePath(source.trim());
+
+		if (compiled == null)
+			return new ElExpression(source);
+
+		return compiled;
+	}
+
+	// ---------------------------------------------------------------------
+	// Paths.
+
+	private static Expression compilePath(String source) {
+
+		int i = identifierEnd(source, 0);
+		if (i == 0)
+			return null;
+
+		Expression expression;
+		switch (source.substring(0, i)) {
+		case "params":
+			expression = new Root(source, Root.PARAMS);
+			break;
+		case "param":
+			expression = new Root(source, Root.PARAM);
+			break;
+		case "parent":
+			expression = new Root(source, Root.PARENT);
+			break;
+		case "keys":
+			if (i != source.length())
+				return null;
+			return new Root(source, Root.KEYS);
+		case "keyset":
+			if (i != source.length())
+				return null;
+			return new Root(source, Root.KEYSET);
+		default:
+			return null;
+		}
+
+		while (i < source.length()) {
+
+			char c = source.charAt(i);
+
+			if (c == '.') {
+
+				int end = identifierEnd(source, i + 1);
+				if (end == i + 1)
+					return null;
+
+				expression = new Member(source, expression, source.substring(i + 1, end));
+				i = end;
+
+			} else if (c == '[') {
+
+				int end = source.indexOf(']', i);
+				if (end < 0)
+					return null;
+
+				String index = source.substring(i + 1, end).trim();
+				if (index.isEmpty() || index.length() > 9)
+					return null;
+				for (int j = 0; j < index.length(); j++)
+					if (!Character.isDigit(index.charAt(j)))
+						return null;
+
+				expression = new Index(source, expression, Integer.parseInt(index));
+				i = end + 1;
+
+			} else
+				return null;
+		}
+
+		return expression;
+	}
+
+	private static int identifierEnd(String source, int start) {
+
+		if (start >= source.length() || !Character.isJavaIdentifierStart(source.charAt(start)))
+			return start;
+
+		int i = start + 1;
+		while (i < source.length() && Character.isJavaIdentifierPart(source.charAt(i)))
+			i++;
+
+		return i;
+	}
+
+	private static class Root extends Expression {
+
+		static final int PARAMS = 0, PARAM = 1, PARENT = 2, KEYS = 3, KEYSET = 4;
+
+		private final int root;
+
+		Root(String source, int root) {
+			super(source);
+			this.root = root;
+		}
+
+		@Override
+		public Object evaluate(Object[] params, Object param, Object parent) {
+			switch (root) {
+			case PARAMS:
+				return params;
+			case PARAM:
+				return param;
+			case PARENT:
+				return parent;
+			case KEYS:
+				throw new IllegalStateException("The keys are only bound to batched children");
+			default:
+				throw new IllegalStateException("The keyset is only bound to keyset paginated bundles");
+			}
+		}
+
+		@Override
+		public boolean usesParent() {
+			return root == PARENT;
+		}
+
+		@Override
+		public boolean isKeys() {
+			return root == KEYS;
+		}
+
+		@Override
+		public boolean isKeyset() {
+			return root == KEYSET;
+		}
+	}
+
+	private static class Index extends Expression {
+
+		private final Expression base;
+		private final int index;
+
+		Index(String source, Expression base, int index) {
+			super(source);
+			this.base = base;
+			this.index = index;
+		}
+
+		@Override
+		public Object evaluate(Object[] params, Object param, Object parent) {
+
+			Object value = base.evaluate(params, param, parent);
+
+			if (value == null)
+				return null;
+
+			if (value instanceof Object[]) {
+				Object[] array = (Object[]) value;
+				return index < array.length ? array[index] : null;
+			}
+
+			if (value instanceof List) {
+				List<?> list = (List<?>) value;
+				return index < list.size() ? list.get(index) : null;
+			}
+
+			if (value instanceof Map)
+				return ((Map<?, ?>) value).get(Long.valueOf(index));
+
+			if (value.getClass().isArray())
+				return index < Array.getLength(value) ? Array.get(value, index) : null;
+
+			throw new IllegalArgumentException("Unable to index " + value.getClass().getName() + " in " + source);
+		}
+
+		@Override
+		public boolean usesParent() {
+			return base.usesParent();
+		}
+	}
+
+	private static class Member extends Expression {
+
+		private final Expression base;
+		private final String name;
+
+		private volatile Accessor last;
+
+		Member(String source, Expression base, String name) {
+			super(source);
+			this.base = base;
+			this.name = name;
+		}
+
+		@Override
+		public Object evaluate(Object[] params, Object param, Object parent) {
+
+			Object value = base.evaluate(params, param, parent);
+
+			if (value == null)
+				return null;
+
+			if (value instanceof Map)
+				return ((Map<?, ?>) value).get(name);
+
+			Accessor accessor = last;
+			if (accessor == null || accessor.type != value.getClass())
+				last = accessor = new Accessor(value.getClass(), name);
+
+			try {
+				return accessor.property.get(value);
+			} catch (Exception e) {
+				throw new IllegalArgumentException("Unable to evaluate " + source, e);
+			}
+		}
+
+		@Override
+		public boolean usesParent() {
+			return base.usesParent();
+		}
+	}
+
+	private static class Accessor {
+
+		final Class<?> type;
+		final Property property;
+
+		Accessor(Class<?> type, String name) {
+			this.type = type;
+			this.property = Beans.findProperty(type, name);
+			if (property == null || !property.isReadable())
+				throw new IllegalArgumentException("Property " + name + " not readable in " + type.getName());
+		}
+	}
+}
@@ -0,0 +1,231 @@
+package io.github.mschonaker.bundler.loader;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Base64;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * The ordering key of a keyset paginated bundle: the columns the rows are
+ * ordered by, each ascending or descending, unique as a whole. The
+ * {@code ${keyset}} placeholder expands to the predicate selecting the rows
+ * after the last one of the previous page, whose keys travel in an opaque
+ * token.
+ *
+ * @author mschonaker
+ */
+public final class Keyset {
+
+	private static final int TOKEN_VERSION = 1;
+
+	/**
+	 * As declared, e.g. {@code created desc, id}.
+	 */
+	public final String spec;
+
+	public final String[] columns;
+
+	/**
+	 * The labels of the {@link #columns} in the results: unqualified, e.g.
+	 * {@code id} for {@code u.id}.
+	 */
+	public final String[] labels;
+
+	/**
+	 * The predicate after a row, e.g. {@code (created < ? or (created = ? and id > ?))}.
+	 */
+	public final String predicate;
+
+	/**
+	 * The index in {@link #columns} of the key bound to each placeholder of
+	 * {@link #predicate}.
+	 */
+	public final int[] binds;
+
+	private Keyset(String spec, String[] columns, String predicate, int[] binds) {
+		this.spec = spec;
+		this.columns = columns;
+		this.labels = new String[columns.length];
+		for (int i = 0; i < columns.length; i++)
+			labels[i] = columns[i].substring(columns[i].lastIndexOf('.') + 1);
+		this.predicate = predicate;
+		this.binds = binds;
+	}
+
+	public static Keyset parse(String spec) {
+
+		String[] parts = spec.split(",");
+
+		String[] columns = new String[parts.length];
+		boolean[] descending = new boolean[parts.length];
+
+		for (int i = 0; i < parts.length; i++) {
+
+			String[] words = parts[i].trim().split("\\s+");
+			if (words[0].isEmpty() || words.length > 2
+					|| words.length == 2 && !words[1].equalsIgnoreCase("asc") && !words[1].equalsIgnoreCase("desc"))
+				throw new IllegalArgumentException("Invalid keyset: " + spec);
+
+			columns[i] = words[0];
+			descending[i] = words.length == 2 && words[1].equalsIgnoreCase("desc");
+		}
+
+		// ((a > ?) or (a = ? and b > ?) or ...)
+		StringBuilder predicate = new StringBuilder();
+		int[] binds = new int[columns.length * (columns.length + 1) / 2];
+		int bind = 0;
+
+		for (int i = 0; i < columns.length; i++) {
+
+			if (i > 0)
+				predicate.append(" or ");
+			predicate.append('(');
+
+			for (int j = 0; j < i; j++) {
+				predicate.append(columns[j]).append(" = ? and ");
+				binds[bind++] = j;
+			}
+
+			predicate.append(columns[i]).append(descending[i] ? " < ?" : " > ?").append(')');
+			binds[bind++] = i;
+		}
+
+		return new Keyset(spec, columns, "(" + predicate + ")", binds);
+	}
+
+	// ---------------------------------------------------------------------
+	// Tokens.
+
+	/**
+	 * Encodes the keys of a row as a URL safe token. Only values of common
+	 * key types are supported, tagged with their type.
+	 */
+	public String encode(Object[] keys) {
+
+		try {
+
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(bytes);
+
+			out.writeByte(TOKEN_VERSION);
+			out.writeByte(keys.length);
+
+			for (Object key : keys)
+				write(out, key);
+
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private static void write(DataOutputStream out, Object key) throws IOException {
+
+		if (key == null)
+			out.writeByte('N');
+		else if (key instanceof Long || key instanceof Integer || key instanceof Short || key instanceof Byte) {
+			out.writeByte('J');
+			out.writeLong(((Number) key).longValue());
+		} else if (key instanceof Double || key instanceof Float) {
+			out.writeByte('F');
+			out.writeDouble(((Number) key).doubleValue());
+		} else if (key instanceof BigDecimal || key instanceof BigInteger) {
+			out.writeByte('D');
+			out.writeUTF(key.toString());
+		} else if (key instanceof String) {
+			out.writeByte('S');
+			out.writeUTF((String) key);
+		} else if (key instanceof Boolean) {
+			out.writeByte('Z');
+			out.writeBoolean((Boolean) key);
+		} else if (key instanceof java.sql.Date) {
+			out.writeByte('d');
+			out.writeUTF(key.toString());
+		} else if (key instanceof Time) {
+			out.writeByte('t');
+			out.writeUTF(key.toString());
+		} else if (key instanceof Date) {
+			Timestamp timestamp = key instanceof Timestamp ? (Timestamp) key : new Timestamp(((Date) key).getTime());
+			out.writeByte('P');
+			out.writeLong(timestamp.getTime());
+			out.writeInt(timestamp.getNanos());
+		} else if (key instanceof UUID) {
+			out.writeByte('U');
+			out.writeUTF(key.toString());
+		} else
+			throw new IllegalArgumentException("Unsupported keyset value type: " + key.getClass().getName());
+	}
+
+	/**
+	 * Decodes the keys of a token, which may have been tampered with: they're
+	 * only ever bound as parameters.
+	 */
+	public Object[] decode(String token) {
+
+		try {
+
+			DataInputStream in = new DataInputStream(
+					new ByteArrayInputStream(Base64.getUrlDecoder().decode(token.trim())));
+
+			if (in.readByte() != TOKEN_VERSION || in.readByte() != columns.length)
+				throw new IOException("Unexpected version or keys");
+
+			Object[] keys = new Object[columns.length];
+			for (int i = 0; i < keys.length; i++)
+				keys[i] = read(in);
+
+			if (in.available() > 0)
+				throw new IOException("Trailing bytes");
+
+			return keys;
+
+		} catch (IOException | IllegalArgumentException e) {
+			throw new IllegalArgumentException("Invalid page token: " + token, e);
+		}
+	}
+
+	private static Object read(DataInputStream in) throws IOException {
+
+		byte tag = in.readByte();
+		switch (tag) {
+		case 'N':
+			return null;
+		case 'J':
+			return in.readLong();
+		case 'F':
+			return in.readDouble();
+		case 'D':
+			return new BigDecimal(in.readUTF());
+		case 'S':
+			return in.readUTF();
+		case 'Z':
+			return in.readBoolean();
+		case 'd':
+			return java.sql.Date.valueOf(in.readUTF());
+		case 't':
+			return Time.valueOf(in.readUTF());
+		case 'P':
+			Timestamp timestamp = new Timestamp(in.readLong());
+			timestamp.setNanos(in.readInt());
+			return timestamp;
+		case 'U':
+			return UUID.fromString(in.readUTF());
+		default:
+			throw new IOException("Unknown tag: " + tag);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return spec;
+	}
+}
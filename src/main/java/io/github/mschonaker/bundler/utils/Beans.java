@@ -1,30 +1,76 @@
 package io.github.mschonaker.bundler.utils;
 
 import java.beans.IntrospectionException;
+import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
 import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 
 public final class Beans {
 
 	private Beans() {
 	}
 
+	// Properties are indexed by the capitalized name, as in the accessor
+	// methods, so that both "xCoord" and "XCoord" resolve to getXCoord().
+	private static final ClassValue<Map<String, Property>> PROPERTIES = new ClassValue<Map<String, Property>>() {
+
+		@Override
+		protected Map<String, Property> computeValue(Class<?> type) {
+
+			try {
+				Map<String, Property> properties = new HashMap<>();
+				for (PropertyDescriptor descriptor : Introspector.getBeanInfo(type).getPropertyDescriptors())
+					properties.put(capitalize(descriptor.getName()), new Property(descriptor));
+				return Collections.unmodifiableMap(properties);
+			} catch (IntrospectionException e) {
+				return Collections.emptyMap();
+			}
+		}
+	};
+
+	private static String capitalize(String name) {
+		if (name.isEmpty() || Character.isUpperCase(name.charAt(0)))
+			return name;
+		return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+	}
+
+	/**
+	 * Returns the property of the class, or {@code null} if there's no such
+	 * property. The properties are introspected once per class.
+	 */
+	public static Property findProperty(Class<?> type, String name) {
+		return PROPERTIES.get(type).get(capitalize(name));
+	}
+
+	/**
+	 * Returns the property of the class, or throws
+	 * {@link IllegalArgumentException} if there's no such property.
+	 */
+	public static Property getProperty(Class<?> type, String name) {
+
+		Property property = findProperty(type, name);
+
+		if (property == null)
+			throw new IllegalArgumentException("No property " + name + " in " + type.getName());
+
+		return property;
+	}
+
 	public static Object getNestedProperty(Object bean, String name, boolean lenient) {
 
 		try {
 			int i = name.indexOf('.');
 
-			if (i < 0) {
-				PropertyDescriptor descriptor = new PropertyDescriptor(name, bean.getClass());
-				return descriptor.getReadMethod().invoke(bean);
-			}
+			if (i < 0)
+				return getProperty(bean.getClass(), name).get(bean);
 
 			// Recursion.
 			String prop = name.substring(0, i);
 
-			PropertyDescriptor descriptor = new PropertyDescriptor(prop, bean.getClass());
-
-			Object currentValue = descriptor.getReadMethod().invoke(bean);
+			Object currentValue = getProperty(bean.getClass(), prop).get(bean);
 
 			return getNestedProperty(currentValue, name.substring(i + 1), lenient);
 
@@ -48,24 +94,22 @@ public final class Beans {
 
 			if (i < 0) {
 
-				PropertyDescriptor descriptor = new PropertyDescriptor(name, bean.getClass());
-				if (descriptor != null)
-					descriptor.getWriteMethod().invoke(bean, coercions.coerce(value, descriptor.getPropertyType()));
+				Property property = getProperty(bean.getClass(), name);
+				property.set(bean, coercions.coerce(value, property.type));
 				return;
 			}
 
 			// Recursion.
 			String prop = name.substring(0, i);
 
-			PropertyDescriptor descriptor = new PropertyDescriptor(prop, bean.getClass());
+			Property property = getProperty(bean.getClass(), prop);
 
-			Object currentValue = descriptor.getReadMethod().invoke(bean);
+			Object currentValue = property.get(bean);
 
 			if (currentValue == null) {
 
-				Class<?> propertyType = descriptor.getPropertyType();
-				currentValue = propertyType.newInstance();
-				descriptor.getWriteMethod().invoke(bean, coercions.coerce(currentValue, descriptor.getPropertyType()));
+				currentValue = property.type.newInstance();
+				property.set(bean, coercions.coerce(currentValue, property.type));
 
 			}
 
@@ -87,6 +131,12 @@ public final class Beans {
 	}
 
 	public static Method getReadMethod(String name, Class<?> returnType) throws IntrospectionException {
-		return new PropertyDescriptor(name, returnType).getReadMethod();
+
+		Property property = findProperty(returnType, name);
+
+		if (property == null || property.readMethod == null)
+			throw new IntrospectionException("No readable property " + name + " in " + returnType.getName());
+
+		return property.readMethod;
 	}
 }
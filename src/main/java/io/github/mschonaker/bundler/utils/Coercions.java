@@ -2,10 +2,15 @@ package io.github.mschonaker.bundler.utils;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.sql.Blob;
+import java.sql.Clob;
 import java.sql.SQLException;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @SuppressWarnings("unchecked")
 public class Coercions {
@@ -25,6 +30,8 @@ public class Coercions {
 		JRE.add(Enum.class, Integer.class, (o, t) -> o.ordinal());
 		JRE.add(Enum.class, int.class, (o, t) -> o.ordinal());
 		JRE.add(byte[].class, InputStream.class, (o, t) -> new ByteArrayInputStream(o));
+		JRE.add(byte[].class, ReadableByteChannel.class, (o, t) -> Channels.newChannel(new ByteArrayInputStream(o)));
+		JRE.add(String.class, Reader.class, (o, t) -> new StringReader(o));
 
 		JRE.add(Blob.class, InputStream.class, (o, t) -> {
 			try {
@@ -37,6 +44,22 @@ public class Coercions {
 			}
 		});
 
+		JRE.add(Blob.class, ReadableByteChannel.class, (o, t) -> {
+			try {
+				return Channels.newChannel(o.getBinaryStream());
+			} catch (SQLException e) {
+				throw new RuntimeException(e);
+			}
+		});
+
+		JRE.add(Clob.class, Reader.class, (o, t) -> {
+			try {
+				return o.getCharacterStream();
+			} catch (SQLException e) {
+				throw new RuntimeException(e);
+			}
+		});
+
 	}
 
 	private static class Key {
@@ -85,23 +108,42 @@ public class Coercions {
 		}
 	}
 
+	private static final Coercer<Object, Object> IDENTITY = (o, t) -> o;
+	private static final Coercer<Object, Object> NONE = (o, t) -> null;
+
 	private final Map<Key, Coercer<?, ?>> coercers;
 
+	// Resolved coercers, per target class and then per source class, including
+	// identity and no coercer outcomes. Replaced whenever a coercer is added.
+	private volatile ClassValue<Map<Class<?>, Coercer<?, ?>>> resolved = newResolved();
+
 	public Coercions() {
-		coercers = new HashMap<>();
+		coercers = new ConcurrentHashMap<>();
 	}
 
 	public Coercions(Coercions other) {
-		coercers = new HashMap<>(other.coercers);
+		coercers = new ConcurrentHashMap<>(other.coercers);
+	}
+
+	private static ClassValue<Map<Class<?>, Coercer<?, ?>>> newResolved() {
+		return new ClassValue<Map<Class<?>, Coercer<?, ?>>>() {
+
+			@Override
+			protected Map<Class<?>, Coercer<?, ?>> computeValue(Class<?> type) {
+				return new ConcurrentHashMap<>();
+			}
+		};
 	}
 
 	public Coercions addAll(Coercions other) {
 		coercers.putAll(other.coercers);
+		resolved = newResolved();
 		return this;
 	}
 
 	public <S, T> Coercions add(Class<S> source, Class<T> target, Coercer<S, T> coercer) {
 		coercers.put(new Key(source, target), coercer);
+		resolved = newResolved();
 		return this;
 	}
 
@@ -111,17 +153,48 @@ public class Coercions {
 		if (o == null)
 			return null;
 
-		// identity.
-		if (target.isAssignableFrom(o.getClass()))
+		Coercer<S, T> coercer = resolve((Class<S>) o.getClass(), target);
+
+		if (coercer == IDENTITY)
 			return target.cast(o);
 
-		Coercer<S, T> coercer = find((Class<S>) o.getClass(), target);
 		if (coercer != null)
 			return coercer.coerce(o, target);
 
 		throw new ClassCastException("Couldn't coerce from " + o.getClass() + " to " + target);
 	}
 
+	/**
+	 * Resolves the coercer from the source class to the target class. The
+	 * returned coercer is the identity if no conversion is needed, and
+	 * {@code null} if there's no coercer. Resolutions are memoized.
+	 */
+	public <S, T> Coercer<S, T> resolve(Class<S> source, Class<T> target) {
+
+		Map<Class<?>, Coercer<?, ?>> bySource = resolved.get(target);
+
+		Coercer<?, ?> c = bySource.get(source);
+
+		if (c == null) {
+
+			if (target.isAssignableFrom(source))
+				c = IDENTITY;
+			else {
+				c = find(source, target);
+				if (c == null)
+					c = NONE;
+			}
+
+			bySource.put(source, c);
+		}
+
+		return c == NONE ? null : (Coercer<S, T>) c;
+	}
+
+	/**
+	 * Looks up the registered coercer walking the hierarchy of the source
+	 * class. Prefer {@link #resolve(Class, Class)}, which is memoized.
+	 */
 	public <S, T> Coercer<S, T> find(Class<S> source, Class<T> target) {
 
 		Class<S> t = source;
@@ -3,8 +3,12 @@ package io.github.mschonaker.bundler.utils;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.util.Arrays;
-import java.util.List;
+import java.util.function.Consumer;
 
+/**
+ * Helpers on methods. The shape of their return types is up to
+ * {@link Signature}.
+ */
 public final class Methods {
 
 	private Methods() {
@@ -14,29 +18,28 @@ public final class Methods {
 		return Arrays.stream(method.getExceptionTypes()).filter(t -> t.isAssignableFrom(declared.getClass())).findAny().isPresent();
 	}
 
-	public static boolean returnsList(Method method) {
-		return method.getReturnType().equals(List.class);
+	/**
+	 * Returns the index of the {@link Consumer} parameter, or -1.
+	 */
+	public static int getConsumerParameter(Method method) {
+		Class<?>[] types = method.getParameterTypes();
+		for (int i = 0; i < types.length; i++)
+			if (types[i].equals(Consumer.class))
+				return i;
+		return -1;
 	}
 
-	public static boolean returnsPrimitive(Method method) {
-		return returnsList(method) ? isPrimitive(getReturningTypeComponent(method)) : isPrimitive(method.getReturnType());
-	}
-
-	private static boolean isPrimitive(Class<?> type) {
-		return type.isPrimitive() || type.isEnum() || type.getClassLoader() == null;
-	}
-
-	public static Class<?> getReturningTypeComponent(Method method) {
+	public static Class<?> getConsumedType(Method method) {
 		try {
-			ParameterizedType type = (ParameterizedType) method.getGenericReturnType();
+			int i = getConsumerParameter(method);
+			ParameterizedType type = (ParameterizedType) method.getGenericParameterTypes()[i];
 			return (Class<?>) type.getActualTypeArguments()[0];
 		} catch (Throwable t) {
 			return null;
 		}
 	}
 
-	public static boolean returnsVoid(Method method) {
-		Class<?> type = method.getReturnType();
-		return Void.TYPE.equals(type) || Void.class.equals(type);
+	public static boolean isPrimitive(Class<?> type) {
+		return type != null && (type.isPrimitive() || type.isEnum() || type.getClassLoader() == null);
 	}
 }
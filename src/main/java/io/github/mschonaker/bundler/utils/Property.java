@@ -0,0 +1,168 @@
+package io.github.mschonaker.bundler.utils;
+
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.UndeclaredThrowableException;
+
+/**
+ * A bean property, introspected once per class, with its accessors already
+ * resolved as {@link MethodHandle}s.
+ *
+ * @author mschonaker
+ */
+public final class Property {
+
+	private static final MethodType GETTER = MethodType.methodType(Object.class, Object.class);
+	private static final MethodType SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+
+	public final String name;
+
+	public final Class<?> type;
+
+	public final Method readMethod;
+
+	public final Method writeMethod;
+
+	private final MethodHandle getter;
+	private final MethodHandle setter;
+
+	/**
+	 * The setter taking the primitive itself, for primitive properties, so
+	 * that values read as primitives are never boxed.
+	 */
+	private final MethodHandle primitiveSetter;
+
+	Property(PropertyDescriptor descriptor) {
+		name = descriptor.getName();
+		type = descriptor.getPropertyType();
+		readMethod = descriptor.getReadMethod();
+		writeMethod = descriptor.getWriteMethod();
+		getter = unreflect(readMethod, GETTER);
+		setter = unreflect(writeMethod, SETTER);
+		primitiveSetter = type != null && type.isPrimitive()
+				? unreflect(writeMethod, MethodType.methodType(void.class, Object.class, type))
+				: null;
+	}
+
+	private static MethodHandle unreflect(Method method, MethodType type) {
+
+		if (method == null)
+			return null;
+
+		try {
+			return MethodHandles.publicLookup().unreflect(method).asType(type);
+		} catch (IllegalAccessException e) {
+			try {
+				method.setAccessible(true);
+				return MethodHandles.lookup().unreflect(method).asType(type);
+			} catch (RuntimeException | IllegalAccessException ex) {
+				return null;
+			}
+		}
+	}
+
+	public boolean isReadable() {
+		return getter != null;
+	}
+
+	public boolean isWritable() {
+		return setter != null;
+	}
+
+	public Object get(Object bean) throws Exception {
+
+		if (getter == null)
+			throw new IllegalArgumentException("Property " + name + " is not readable");
+
+		try {
+			return (Object) getter.invokeExact(bean);
+		} catch (Exception | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new UndeclaredThrowableException(t);
+		}
+	}
+
+	public void set(Object bean, Object value) throws Exception {
+
+		if (setter == null)
+			throw new IllegalArgumentException("Property " + name + " is not writable");
+
+		try {
+			setter.invokeExact(bean, value);
+		} catch (Exception | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new UndeclaredThrowableException(t);
+		}
+	}
+
+	public void setLong(Object bean, long value) throws Exception {
+
+		checkPrimitive(long.class);
+
+		try {
+			primitiveSetter.invokeExact(bean, value);
+		} catch (Exception | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new UndeclaredThrowableException(t);
+		}
+	}
+
+	public void setInt(Object bean, int value) throws Exception {
+
+		checkPrimitive(int.class);
+
+		try {
+			primitiveSetter.invokeExact(bean, value);
+		} catch (Exception | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new UndeclaredThrowableException(t);
+		}
+	}
+
+	public void setDouble(Object bean, double value) throws Exception {
+
+		checkPrimitive(double.class);
+
+		try {
+			primitiveSetter.invokeExact(bean, value);
+		} catch (Exception | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new UndeclaredThrowableException(t);
+		}
+	}
+
+	public void setBoolean(Object bean, boolean value) throws Exception {
+
+		checkPrimitive(boolean.class);
+
+		try {
+			primitiveSetter.invokeExact(bean, value);
+		} catch (Exception | Error e) {
+			throw e;
+		} catch (Throwable t) {
+			throw new UndeclaredThrowableException(t);
+		}
+	}
+
+	private void checkPrimitive(Class<?> primitive) {
+
+		if (primitiveSetter == null)
+			throw new IllegalArgumentException("Property " + name + " is not writable");
+
+		if (type != primitive)
+			throw new IllegalArgumentException("Property " + name + " is not of type " + primitive);
+	}
+
+	@Override
+	public String toString() {
+		return "Property [name=" + name + ", type=" + type + "]";
+	}
+}
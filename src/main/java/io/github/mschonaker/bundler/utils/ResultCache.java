@@ -0,0 +1,188 @@
+package io.github.mschonaker.bundler.utils;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The cached results of a bundle, keyed by the database, the configuration
+ * they were mapped with and the arguments of the call, least recently used
+ * evicted first, optionally expiring.
+ *
+ * Tables change when a transaction writing them commits, at a tick of a
+ * global clock. Entries are stamped with the tick at which the transaction
+ * loading them started, as under snapshot isolation that's as old as what it
+ * reads may be, and discarded once any of their tables changes after it.
+ * Caches aren't tracked, so an invalidation is just a clock tick.
+ *
+ * @author mschonaker
+ */
+public final class ResultCache {
+
+	private static final AtomicLong CLOCK = new AtomicLong();
+
+	/**
+	 * The tick at which each table last changed.
+	 */
+	private static final Map<String, Long> CHANGES = new ConcurrentHashMap<>();
+
+	private final long ttlNanos;
+	private final String[] tables;
+	private final Map<Key, Cached> entries;
+
+	/**
+	 * @param size
+	 *            the maximum entries.
+	 * @param ttlMillis
+	 *            how long the entries live, 0 for ever.
+	 * @param tables
+	 *            the tables the results are read from, or null.
+	 */
+	public ResultCache(int size, long ttlMillis, String[] tables) {
+		this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+		this.tables = tables;
+		this.entries = new LinkedHashMap<Key, Cached>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Cached> eldest) {
+				return size() > size;
+			}
+		};
+	}
+
+	/**
+	 * Returns the current tick, to be taken when a transaction starts.
+	 */
+	public static long now() {
+		return CLOCK.get();
+	}
+
+	/**
+	 * Returns the cached result for the arguments, or loads and caches it,
+	 * from a transaction started at the tick.
+	 */
+	public Object get(Object database, Object config, Object[] args, long started, Callable<?> loader)
+			throws Exception {
+
+		Key key = new Key(database, config, args);
+
+		synchronized (entries) {
+
+			Cached cached = entries.get(key);
+			if (cached != null) {
+				if (cached.isValid(this))
+					return cached.value;
+				entries.remove(key);
+			}
+		}
+
+		long loaded = System.nanoTime();
+
+		Object value = loader.call();
+
+		// Written by a transaction committed after this one started: it may
+		// have read them before the commit.
+		if (changedSince(started))
+			return value;
+
+		synchronized (entries) {
+			entries.put(key, new Cached(value, started, loaded));
+		}
+
+		return value;
+	}
+
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	/**
+	 * Tells whether any of the tables changed after the tick.
+	 */
+	private boolean changedSince(long tick) {
+
+		if (tables == null)
+			return false;
+
+		for (String table : tables) {
+			Long changed = CHANGES.get(table);
+			if (changed != null && changed > tick)
+				return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Discards the results read from the tables, in every cache. To be called
+	 * once the transaction writing them has committed.
+	 */
+	public static void invalidate(Collection<String> tables) {
+
+		long tick = CLOCK.incrementAndGet();
+
+		for (String table : tables)
+			CHANGES.merge(table, tick, Math::max);
+	}
+
+	private static class Cached {
+
+		final Object value;
+		final long started;
+		final long loaded;
+
+		Cached(Object value, long started, long loaded) {
+			this.value = value;
+			this.started = started;
+			this.loaded = loaded;
+		}
+
+		boolean isValid(ResultCache cache) {
+			return (cache.ttlNanos == 0 || System.nanoTime() - loaded < cache.ttlNanos)
+					&& !cache.changedSince(started);
+		}
+	}
+
+	/**
+	 * The database and the configuration, by identity, and the arguments,
+	 * compared by content, arrays included.
+	 */
+	private static class Key {
+
+		final Object database;
+		final Object config;
+		final Object[] args;
+		final int hash;
+
+		Key(Object database, Object config, Object[] args) {
+			this.database = database;
+			this.config = config;
+			this.args = args == null ? new Object[0] : args;
+			this.hash = 31 * (31 * System.identityHashCode(database) + System.identityHashCode(config))
+					+ Arrays.deepHashCode(this.args);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+
+			if (!(obj instanceof Key))
+				return false;
+
+			Key other = (Key) obj;
+			return database == other.database && config == other.config && Arrays.deepEquals(args, other.args);
+		}
+	}
+}
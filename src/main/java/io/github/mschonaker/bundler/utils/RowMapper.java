@@ -0,0 +1,497 @@
+package io.github.mschonaker.bundler.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Collection;
+
+import javax.sql.rowset.serial.SerialBlob;
+import javax.sql.rowset.serial.SerialClob;
+
+/**
+ * A plan for mapping the rows of a given column layout into instances of a
+ * given class. Built once from the {@link ResultSetMetaData}, it resolves each
+ * column index to its (possibly nested) property setter and coercer, so that
+ * mapping a row is only a getter and a setter call per column. Numeric and
+ * boolean columns of primitive properties are read with the typed getters and
+ * set with the primitive setters, without boxing.
+ *
+ * @author mschonaker
+ */
+public final class RowMapper {
+
+	private final Class<?> target;
+	private final String[] labels;
+	private final Coercions coercions;
+	private final boolean lenient;
+	private final int optional;
+	private final Column[] columns;
+	private final boolean streams;
+
+	private RowMapper(Class<?> target, String[] labels, int[] types, String[] classNames, Coercions coercions,
+			boolean lenient, int optional) {
+
+		this.target = target;
+		this.labels = labels;
+		this.coercions = coercions;
+		this.lenient = lenient;
+		this.optional = optional;
+
+		columns = new Column[labels.length];
+		boolean streams = false;
+		for (int i = 0; i < labels.length; i++) {
+			columns[i] = compile(target, labels[i], toCamelCase(labels[i]), i + 1, types[i], classNames[i]);
+			streams |= columns[i] != null && columns[i].leaf != null && isStreamed(columns[i].leaf.type);
+		}
+		this.streams = streams;
+	}
+
+	public static RowMapper compile(Class<?> target, ResultSetMetaData md, Coercions coercions, boolean lenient)
+			throws SQLException {
+		return compile(target, md, coercions, lenient, 0);
+	}
+
+	/**
+	 * Compiles a plan where the column at the optional index, e.g. a join
+	 * column, is mapped only if the target has a property for it, even when
+	 * strict.
+	 */
+	public static RowMapper compile(Class<?> target, ResultSetMetaData md, Coercions coercions, boolean lenient,
+			int optional) throws SQLException {
+
+		int[] types = new int[md.getColumnCount()];
+		String[] classNames = new String[types.length];
+		for (int i = 0; i < types.length; i++) {
+			types[i] = md.getColumnType(i + 1);
+			classNames[i] = md.getColumnClassName(i + 1);
+		}
+
+		return new RowMapper(target, labels(md), types, classNames, coercions, lenient, optional);
+	}
+
+	/**
+	 * Returns the column labels, as the target property names come from them.
+	 */
+	public static String[] labels(ResultSetMetaData md) throws SQLException {
+
+		String[] labels = new String[md.getColumnCount()];
+
+		for (int i = 0; i < labels.length; i++) {
+			String label = md.getColumnLabel(i + 1);
+			if (label == null || label.isEmpty())
+				label = md.getColumnName(i + 1);
+			labels[i] = label;
+		}
+
+		return labels;
+	}
+
+	public static String toCamelCase(String value) {
+
+		String[] split = value.split("_");
+
+		StringBuilder sb = new StringBuilder(value.length());
+		sb.append(split[0].toLowerCase());
+
+		for (int i = 1; i < split.length; i++)
+			if (!split[i].isEmpty())
+				sb.append(Character.toUpperCase(split[i].charAt(0))).append(split[i].substring(1).toLowerCase());
+
+		return sb.toString();
+	}
+
+	/**
+	 * Tells whether this plan was compiled for the same target, column layout
+	 * and configuration.
+	 */
+	public boolean matches(Class<?> target, ResultSetMetaData md, Coercions coercions, boolean lenient)
+			throws SQLException {
+		return matches(target, md, coercions, lenient, 0);
+	}
+
+	public boolean matches(Class<?> target, ResultSetMetaData md, Coercions coercions, boolean lenient, int optional)
+			throws SQLException {
+
+		if (this.target != target || this.coercions != coercions || this.lenient != lenient
+				|| this.optional != optional)
+			return false;
+
+		if (md.getColumnCount() != labels.length)
+			return false;
+
+		for (int i = 0; i < labels.length; i++) {
+			String label = md.getColumnLabel(i + 1);
+			if (label == null || label.isEmpty())
+				label = md.getColumnName(i + 1);
+			if (!labels[i].equals(label))
+				return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Tells whether values of the type are streams, readers, channels or large
+	 * objects, which can be read only once, or only within the transaction.
+	 */
+	public static boolean isStreamed(Class<?> type) {
+		return type == InputStream.class || type == ReadableByteChannel.class || type == Reader.class
+				|| type == Blob.class || type == Clob.class;
+	}
+
+	/**
+	 * Tells whether any column is mapped into a property whose values are
+	 * streamed.
+	 *
+	 * @see #isStreamed(Class)
+	 */
+	public boolean mapsStreams() {
+		return streams;
+	}
+
+	/**
+	 * Maps the current row into the object, reading the large objects
+	 * eagerly.
+	 */
+	public void map(ResultSet rs, Object object) throws Exception {
+		map(rs, object, null);
+	}
+
+	/**
+	 * Maps the current row into the object, adding the large objects read
+	 * lazily to the collection, to be freed by the caller, or reading them
+	 * eagerly if it's null, e.g. for values outliving the transaction.
+	 */
+	public void map(ResultSet rs, Object object, Collection<Object> lobs) throws Exception {
+		for (Column column : columns)
+			if (column != null)
+				column.map(rs, object, lobs);
+	}
+
+	// ---------------------------------------------------------------------
+	// Columns.
+
+	private Column compile(Class<?> type, String label, String name, int index, int sqlType, String className) {
+
+		String[] path = name.split("\\.");
+		Property[] properties = new Property[path.length];
+
+		for (int i = 0; i < path.length; i++) {
+
+			Property property = type == null ? null : Beans.findProperty(type, path[i]);
+
+			boolean usable = property != null && property.isWritable() && (i == path.length - 1 || property.isReadable());
+
+			if (!usable) {
+
+				if (lenient || index == optional)
+					return null;
+
+				return new Column(index, label, null, 0, null);
+			}
+
+			properties[i] = property;
+			type = property.type;
+		}
+
+		return new Column(index, label, properties, lobOf(sqlType, type), primitiveOf(className, type));
+	}
+
+	/**
+	 * Returns the primitive type the column is read as, with the typed getter
+	 * and set with the primitive setter, or null if it's read as an object.
+	 * Only columns whose values convert losslessly into the property type are,
+	 * and only if no coercer is registered for them, which would be used
+	 * otherwise.
+	 */
+	private Class<?> primitiveOf(String className, Class<?> type) {
+
+		if (className == null || !type.isPrimitive())
+			return null;
+
+		Class<?> source;
+		Class<?> primitive;
+
+		switch (className) {
+		case "java.lang.Long":
+			source = Long.class;
+			primitive = type == long.class ? long.class : null;
+			break;
+		case "java.lang.Integer":
+			source = Integer.class;
+			primitive = type == long.class || type == int.class ? type : null;
+			break;
+		case "java.lang.Short":
+			source = Short.class;
+			primitive = type == long.class || type == int.class ? type : null;
+			break;
+		case "java.lang.Byte":
+			source = Byte.class;
+			primitive = type == long.class || type == int.class ? type : null;
+			break;
+		case "java.lang.Double":
+			source = Double.class;
+			primitive = type == double.class ? double.class : null;
+			break;
+		case "java.lang.Float":
+			source = Float.class;
+			primitive = type == double.class ? double.class : null;
+			break;
+		case "java.lang.Boolean":
+			source = Boolean.class;
+			primitive = type == boolean.class ? boolean.class : null;
+			break;
+		default:
+			return null;
+		}
+
+		return primitive != null && coercions.resolve(source, type) == null ? primitive : null;
+	}
+
+	/**
+	 * Returns the type of large object read lazily into the property type, or
+	 * 0 if the column is read as usual. Streams, readers and channels are read
+	 * from the large object, instead of from a copy in memory.
+	 */
+	private static int lobOf(int sqlType, Class<?> type) {
+
+		if (sqlType == Types.BLOB && (type == InputStream.class || type == ReadableByteChannel.class || type == Blob.class))
+			return Types.BLOB;
+
+		if ((sqlType == Types.CLOB || sqlType == Types.NCLOB) && (type == Reader.class || type == Clob.class))
+			return Types.CLOB;
+
+		return 0;
+	}
+
+	private class Column {
+
+		final int index;
+		final String label;
+		final Property[] path;
+		final Property leaf;
+		final int lob;
+		final Class<?> primitive;
+
+		volatile Conversion conversion;
+
+		Column(int index, String label, Property[] path, int lob, Class<?> primitive) {
+			this.index = index;
+			this.label = label;
+			this.path = path;
+			this.leaf = path == null ? null : path[path.length - 1];
+			this.lob = lob;
+			this.primitive = primitive;
+		}
+
+		void map(ResultSet rs, Object object, Collection<Object> lobs) throws Exception {
+
+			if (primitive != null) {
+				mapPrimitive(rs, object);
+				return;
+			}
+
+			set(object, lob == 0 ? rs.getObject(index) : readLob(rs, lobs));
+		}
+
+		private void set(Object object, Object value) {
+			try {
+
+				if (path == null)
+					throw new IllegalArgumentException("No property for column " + label);
+
+				leaf.set(bean(object), coerce(value));
+
+			} catch (Exception e) {
+				fail(e, value == null ? null : value.getClass());
+			}
+		}
+
+		/**
+		 * Reads the column with its typed getter and sets it without boxing.
+		 * SQL NULLs are set as objects, as any other column.
+		 */
+		private void mapPrimitive(ResultSet rs, Object object) throws Exception {
+
+			if (primitive == long.class) {
+
+				long value = rs.getLong(index);
+				if (rs.wasNull()) {
+					set(object, null);
+					return;
+				}
+
+				try {
+					leaf.setLong(bean(object), value);
+				} catch (Exception e) {
+					fail(e, Long.class);
+				}
+
+			} else if (primitive == int.class) {
+
+				int value = rs.getInt(index);
+				if (rs.wasNull()) {
+					set(object, null);
+					return;
+				}
+
+				try {
+					leaf.setInt(bean(object), value);
+				} catch (Exception e) {
+					fail(e, Integer.class);
+				}
+
+			} else if (primitive == double.class) {
+
+				double value = rs.getDouble(index);
+				if (rs.wasNull()) {
+					set(object, null);
+					return;
+				}
+
+				try {
+					leaf.setDouble(bean(object), value);
+				} catch (Exception e) {
+					fail(e, Double.class);
+				}
+
+			} else {
+
+				boolean value = rs.getBoolean(index);
+				if (rs.wasNull()) {
+					set(object, null);
+					return;
+				}
+
+				try {
+					leaf.setBoolean(bean(object), value);
+				} catch (Exception e) {
+					fail(e, Boolean.class);
+				}
+			}
+		}
+
+		/**
+		 * Returns the bean holding the leaf property, creating the intermediate
+		 * ones.
+		 */
+		private Object bean(Object object) throws Exception {
+
+			Object bean = object;
+			for (int i = 0; i < path.length - 1; i++) {
+				Object current = path[i].get(bean);
+				if (current == null) {
+					current = path[i].type.newInstance();
+					path[i].set(bean, current);
+				}
+				bean = current;
+			}
+
+			return bean;
+		}
+
+		private void fail(Exception e, Class<?> valueClass) {
+
+			if (lenient)
+				return;
+
+			String valueClassName = (valueClass == null ? null : valueClass.getName());
+
+			throw new IllegalArgumentException("Unable to set property " + target.getName() + "." + label
+					+ " value of Class " + valueClassName, e);
+		}
+
+		private Object readLob(ResultSet rs, Collection<Object> lobs) throws SQLException {
+
+			if (lobs == null)
+				return readEagerly(rs);
+
+			Object value = lob == Types.BLOB ? rs.getBlob(index) : rs.getClob(index);
+			if (value == null)
+				return null;
+
+			lobs.add(value);
+
+			if (leaf.type == InputStream.class)
+				return ((Blob) value).getBinaryStream();
+
+			if (leaf.type == ReadableByteChannel.class)
+				return Channels.newChannel(((Blob) value).getBinaryStream());
+
+			if (leaf.type == Reader.class)
+				return ((Clob) value).getCharacterStream();
+
+			return value;
+		}
+
+		/**
+		 * Reads the large object into memory, so that it's valid after the
+		 * transaction.
+		 */
+		private Object readEagerly(ResultSet rs) throws SQLException {
+
+			if (lob == Types.BLOB) {
+
+				byte[] bytes = rs.getBytes(index);
+				if (bytes == null)
+					return null;
+
+				if (leaf.type == InputStream.class)
+					return new ByteArrayInputStream(bytes);
+
+				if (leaf.type == ReadableByteChannel.class)
+					return Channels.newChannel(new ByteArrayInputStream(bytes));
+
+				return new SerialBlob(bytes);
+			}
+
+			String string = rs.getString(index);
+			if (string == null)
+				return null;
+
+			if (leaf.type == Reader.class)
+				return new StringReader(string);
+
+			return new SerialClob(string.toCharArray());
+		}
+
+		@SuppressWarnings({ "rawtypes", "unchecked" })
+		private Object coerce(Object value) {
+
+			if (value == null)
+				return null;
+
+			Class<?> source = value.getClass();
+
+			Conversion c = conversion;
+			if (c == null || c.source != source)
+				conversion = c = new Conversion(source, leaf.type, coercions);
+
+			return ((Coercer) c.coercer).coerce(value, leaf.type);
+		}
+	}
+
+	private static class Conversion {
+
+		final Class<?> source;
+		final Coercer<?, ?> coercer;
+
+		Conversion(Class<?> source, Class<?> target, Coercions coercions) {
+
+			this.source = source;
+			this.coercer = coercions.resolve(source, target);
+
+			if (coercer == null)
+				throw new ClassCastException("Couldn't coerce from " + source + " to " + target);
+		}
+	}
+}
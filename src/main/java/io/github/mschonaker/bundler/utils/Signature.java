@@ -0,0 +1,139 @@
+package io.github.mschonaker.bundler.utils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import io.github.mschonaker.bundler.Page;
+
+/**
+ * The shape of a method, as far as mapping is concerned: what it returns and
+ * how it's executed. Computed once per method from its (generic) signature,
+ * so that executions don't inspect it again.
+ *
+ * @author mschonaker
+ */
+public final class Signature {
+
+	private static final ClassValue<Map<Method, Signature>> SIGNATURES = new ClassValue<Map<Method, Signature>>() {
+		@Override
+		protected Map<Method, Signature> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+	};
+
+	public final Method method;
+
+	public final Class<?> returnType;
+
+	/**
+	 * The type argument of a {@code List}, {@code Stream}, {@code Iterator} or
+	 * {@code Page} return type, or null.
+	 */
+	public final Class<?> component;
+
+	public final boolean returnsVoid;
+
+	public final boolean returnsList;
+
+	public final boolean returnsPage;
+
+	public final boolean returnsPrimitive;
+
+	public final boolean returnsPrimitiveArray;
+
+	public final boolean returnsIterator;
+
+	public final boolean returnsCursor;
+
+	/**
+	 * The index of the {@code Consumer} parameter, or -1.
+	 */
+	public final int consumerParameter;
+
+	/**
+	 * The type of the rows of a cursor: the component or the consumed type.
+	 */
+	public final Class<?> cursorType;
+
+	public final boolean isCursorScalar;
+
+	/**
+	 * Whether the method is shaped as a batch: an {@code Iterable} first
+	 * parameter, and nothing, update counts or generated keys returned. Only
+	 * bundles declared with {@code batch="true"} are executed as such.
+	 */
+	public final boolean isBatch;
+
+	/**
+	 * The signature of the value of a {@code CompletableFuture} return type, or
+	 * null.
+	 */
+	public final Signature future;
+
+	private Signature(Method method) {
+		this(method, method.getGenericReturnType());
+	}
+
+	/**
+	 * The shape of the method as if it returned the type.
+	 */
+	private Signature(Method method, Type type) {
+
+		this.method = method;
+		returnType = rawType(type);
+		component = componentOf(type);
+
+		boolean returnsStream = returnType.equals(Stream.class);
+
+		returnsVoid = Void.TYPE.equals(returnType) || Void.class.equals(returnType);
+		returnsList = returnType.equals(List.class);
+		returnsPage = returnType.equals(Page.class);
+		returnsIterator = returnType.equals(Iterator.class);
+		returnsPrimitive = Methods
+				.isPrimitive(returnsList || returnsPage || returnsStream || returnsIterator ? component : returnType);
+		returnsPrimitiveArray = returnType.equals(long[].class) || returnType.equals(int[].class)
+				|| returnType.equals(double[].class);
+		consumerParameter = Methods.getConsumerParameter(method);
+		returnsCursor = returnsStream || returnsIterator || consumerParameter >= 0;
+		cursorType = consumerParameter < 0 ? component : Methods.getConsumedType(method);
+		isCursorScalar = Methods.isPrimitive(cursorType);
+
+		Class<?>[] parameters = method.getParameterTypes();
+		isBatch = parameters.length > 0 && Iterable.class.isAssignableFrom(parameters[0])
+				&& (returnsVoid || returnType.equals(int[].class) || returnsList && returnsPrimitive);
+
+		future = returnType.equals(CompletableFuture.class) && type instanceof ParameterizedType
+				? new Signature(method, ((ParameterizedType) type).getActualTypeArguments()[0]) : null;
+	}
+
+	private static Class<?> rawType(Type type) {
+		if (type instanceof Class)
+			return (Class<?>) type;
+		if (type instanceof ParameterizedType)
+			return rawType(((ParameterizedType) type).getRawType());
+		return Object.class;
+	}
+
+	private static Class<?> componentOf(Type type) {
+		if (!(type instanceof ParameterizedType))
+			return null;
+		Type argument = ((ParameterizedType) type).getActualTypeArguments()[0];
+		return argument instanceof Class ? (Class<?>) argument : null;
+	}
+
+	public static Signature of(Method method) {
+		return SIGNATURES.get(method.getDeclaringClass()).computeIfAbsent(method, Signature::new);
+	}
+
+	@Override
+	public String toString() {
+		return method.toString();
+	}
+}
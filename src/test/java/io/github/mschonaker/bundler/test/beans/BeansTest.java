@@ -0,0 +1,62 @@
+package io.github.mschonaker.bundler.test.beans;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import io.github.mschonaker.bundler.test.daos.user.Preferences;
+import io.github.mschonaker.bundler.test.daos.user.User;
+import io.github.mschonaker.bundler.utils.Beans;
+import io.github.mschonaker.bundler.utils.Coercions;
+import io.github.mschonaker.bundler.utils.Property;
+
+public class BeansTest {
+
+	@Test
+	public void testRegistry() throws Exception {
+
+		Property property = Beans.findProperty(User.class, "username");
+		assertNotNull(property);
+		assertSame(property, Beans.findProperty(User.class, "username"));
+		assertEquals(String.class, property.type);
+		assertTrue(property.isReadable());
+		assertTrue(property.isWritable());
+
+		assertNull(Beans.findProperty(User.class, "doesntExist"));
+
+		Property a = Beans.findProperty(Preferences.class, "a");
+		assertEquals(boolean.class, a.type);
+
+		Preferences preferences = new Preferences();
+		a.set(preferences, true);
+		assertEquals(true, a.get(preferences));
+	}
+
+	@Test
+	public void testNested() {
+
+		User user = new User();
+
+		Beans.setNestedProperty(user, "sub.sub.id", 13, false, Coercions.JRE);
+		assertEquals(13, user.getSub().getSub().getId().intValue());
+		assertEquals(13, Beans.getNestedProperty(user, "sub.sub.id", false));
+
+		Beans.setNestedProperty(user, "doesnt.exist", 13, true, Coercions.JRE);
+		assertNull(Beans.getNestedProperty(user, "doesnt.exist", true));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testStrict() {
+		Beans.setNestedProperty(new User(), "doesntExist", 13, false, Coercions.JRE);
+	}
+
+	@Test
+	public void testReadOnly() {
+		assertFalse(Beans.findProperty(User.class, "class").isWritable());
+	}
+}
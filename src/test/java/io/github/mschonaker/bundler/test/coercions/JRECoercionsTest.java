@@ -1,6 +1,9 @@
 package io.github.mschonaker.bundler.test.coercions;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 
 import org.junit.Test;
 
@@ -39,4 +42,24 @@ public class JRECoercionsTest {
 		assertEquals(TEST.CD, my.coerce("CD", TEST.class));
 	}
 
+	@Test
+	public void resolve() {
+
+		assertNotNull(Coercions.JRE.resolve(Integer.class, Number.class));
+		assertNull(Coercions.JRE.resolve(Integer.class, Long.class));
+		assertSame(Coercions.JRE.resolve(Integer.class, String.class),
+				Coercions.JRE.resolve(Integer.class, String.class));
+
+		Coercions my = new Coercions(Coercions.JRE);
+		assertNull(my.resolve(Integer.class, Long.class));
+
+		my.add(Integer.class, Long.class, (o, t) -> o.longValue());
+		assertNotNull(my.resolve(Integer.class, Long.class));
+		assertEquals((Long) 16L, my.coerce(16, Long.class));
+	}
+
+	@Test(expected = ClassCastException.class)
+	public void noCoercer() {
+		Coercions.JRE.coerce(16, Long.class);
+	}
 }
@@ -0,0 +1,103 @@
+package io.github.mschonaker.bundler.test.daos.autoincrement;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import io.github.mschonaker.bundler.Bundler;
+import io.github.mschonaker.bundler.Config;
+import io.github.mschonaker.bundler.Transaction;
+import io.github.mschonaker.bundler.test.AbstractTest;
+
+public class BatchTest extends AbstractTest {
+
+	private static UserDAO dao;
+
+	@BeforeClass
+	public static void beforeClass() throws IOException {
+		dao = initialize(UserDAO.class, new Config().strict().batchSize(3));
+		try (Transaction tx = Bundler.writeTransaction(ds)) {
+			dao.createSchema();
+			tx.success();
+		}
+	}
+
+	@Test
+	public void testBatch() {
+
+		List<User> users = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			User user = new User();
+			user.setUsername("user-" + i);
+			user.setPassword("secret");
+			user.setRealname("User " + i);
+			users.add(user);
+		}
+
+		try (Transaction tx = Bundler.writeTransaction(ds)) {
+
+			List<Long> ids = dao.insertAll(users);
+			assertEquals(10, ids.size());
+
+			for (int i = 0; i < 10; i++)
+				users.get(i).setId(ids.get(i));
+
+			tx.success();
+		}
+
+		try (Transaction tx = Bundler.writeTransaction(ds)) {
+
+			assertEquals(10, dao.findAll().size());
+			assertEquals("user-7", dao.find(users.get(7).getId()).getUsername());
+
+			users.forEach(u -> u.setRealname(u.getRealname() + " updated"));
+
+			int[] counts = dao.updateAll(users);
+			assertArrayEquals(new int[] { 1, 1, 1, 1, 1, 1, 1, 1, 1, 1 }, counts);
+
+			tx.success();
+		}
+
+		try (Transaction tx = Bundler.writeTransaction(ds)) {
+
+			assertEquals("User 3 updated", dao.find(users.get(3).getId()).getRealname());
+
+			dao.deleteAll(users);
+			assertNull(dao.find(users.get(3).getId()));
+			assertEquals(0, dao.findAll().size());
+
+			tx.success();
+		}
+	}
+
+	@Test
+	public void testNotBatch() {
+
+		// Rolled back.
+		try (Transaction tx = Bundler.writeTransaction(ds)) {
+
+			List<User> users = new ArrayList<>();
+			for (int i = 0; i < 3; i++) {
+				User user = new User();
+				user.setUsername("pair-" + i);
+				user.setPassword("secret");
+				user.setRealname("Pair " + i);
+				user.setId(dao.insert(user));
+				users.add(user);
+			}
+
+			// Not declared a batch, so the list is bound as a whole.
+			dao.deletePair(users);
+			assertNull(dao.find(users.get(0).getId()));
+			assertNull(dao.find(users.get(1).getId()));
+			assertEquals("pair-2", dao.find(users.get(2).getId()).getUsername());
+		}
+	}
+}
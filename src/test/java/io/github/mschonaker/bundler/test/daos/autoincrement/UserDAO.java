@@ -1,5 +1,6 @@
 package io.github.mschonaker.bundler.test.daos.autoincrement;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface UserDAO {
@@ -12,4 +13,12 @@ public interface UserDAO {
 
 	Long insert(User user);
 
+	List<Long> insertAll(List<User> users);
+
+	int[] updateAll(Collection<User> users);
+
+	void deleteAll(Iterable<User> users);
+
+	void deletePair(List<User> users);
+
 }
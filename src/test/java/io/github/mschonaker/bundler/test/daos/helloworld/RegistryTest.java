@@ -0,0 +1,65 @@
+package io.github.mschonaker.bundler.test.daos.helloworld;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.StringReader;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import io.github.mschonaker.bundler.Bundler;
+import io.github.mschonaker.bundler.Config;
+import io.github.mschonaker.bundler.Transaction;
+
+public class RegistryTest {
+
+	private static DataSource ds;
+
+	@BeforeClass
+	public static void beforeClass() throws Exception {
+
+		JdbcDataSource dataSource = new JdbcDataSource();
+
+		dataSource.setURL("jdbc:h2:mem:sampledb" + System.nanoTime() + ";DB_CLOSE_DELAY=-1;MODE=MySQL");
+		dataSource.setUser("sa");
+		dataSource.setPassword("");
+
+		ds = dataSource;
+
+		try (Transaction tx = Bundler.writeTransaction(ds)) {
+			Bundler.inflate(UserDAO.class).createDatabase();
+			tx.success();
+		}
+	}
+
+	@Test
+	public void testInflateAgain() throws Exception {
+
+		for (int i = 0; i < 3; i++) {
+
+			UserDAO dao = Bundler.inflate(UserDAO.class);
+
+			try (Transaction tx = Bundler.readTransaction(ds)) {
+				assertEquals(3, dao.findAll().size());
+			}
+		}
+	}
+
+	@Test
+	public void testOverlay() throws Exception {
+
+		Config config = new Config().loadResource(UserDAO.class)
+				.load(new StringReader("<bundler><findAll>select * from users where username = 'user-a'</findAll></bundler>"));
+
+		UserDAO overlaid = Bundler.inflate(UserDAO.class, config);
+		UserDAO shared = Bundler.inflate(UserDAO.class);
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+			assertEquals(1, overlaid.findAll().size());
+			assertEquals(3, shared.findAll().size());
+		}
+	}
+}
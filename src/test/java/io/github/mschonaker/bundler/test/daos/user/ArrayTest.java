@@ -0,0 +1,72 @@
+package io.github.mschonaker.bundler.test.daos.user;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import io.github.mschonaker.bundler.Bundler;
+import io.github.mschonaker.bundler.Transaction;
+
+public class ArrayTest {
+
+	private static DataSource ds;
+	private static UserService service;
+
+	@BeforeClass
+	public static void beforeClass() throws Exception {
+
+		JdbcDataSource dataSource = new JdbcDataSource();
+
+		dataSource.setURL("jdbc:h2:mem:sampledb" + System.nanoTime() + ";DB_CLOSE_DELAY=-1;MODE=MySQL");
+		dataSource.setUser("sa");
+		dataSource.setPassword("");
+
+		ds = dataSource;
+
+		service = Bundler.inflate(UserService.class);
+		try (Transaction tx = Bundler.writeTransaction(dataSource)) {
+			service.createTables();
+			tx.success();
+		}
+	}
+
+	@Test
+	public void testArrays() {
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+			assertArrayEquals(new int[] { 1, 0 }, service.getPreferenceFlags());
+			assertArrayEquals(new long[] { 2, 1 }, service.getRoleCounts());
+			assertArrayEquals(new double[] { 1.0, 0.5 }, service.getRoleRatios(), 0.0);
+		}
+	}
+
+	@Test
+	public void testIterableArgument() {
+
+		// Shaped as a batch, but not declared one: read from the column.
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+			assertArrayEquals(new int[] { 2, 1 }, service.getRoleCountsOf(Arrays.asList("alpha", "beta")));
+		}
+	}
+
+	@Test
+	public void testRepeated() {
+
+		// The second call is presized from the first one.
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+			for (int i = 0; i < 3; i++) {
+				assertArrayEquals(new long[] { 2, 1 }, service.getRoleCounts());
+				List<User> users = service.getAllUsers();
+				assertEquals(2, users.size());
+			}
+		}
+	}
+}
@@ -0,0 +1,35 @@
+package io.github.mschonaker.bundler.test.daos.user;
+
+import java.nio.channels.ReadableByteChannel;
+import java.sql.Blob;
+
+public class Avatar {
+
+	private String username;
+	private ReadableByteChannel avatar;
+	private Blob blob;
+
+	public String getUsername() {
+		return username;
+	}
+
+	public void setUsername(String username) {
+		this.username = username;
+	}
+
+	public ReadableByteChannel getAvatar() {
+		return avatar;
+	}
+
+	public void setAvatar(ReadableByteChannel avatar) {
+		this.avatar = avatar;
+	}
+
+	public Blob getBlob() {
+		return blob;
+	}
+
+	public void setBlob(Blob blob) {
+		this.blob = blob;
+	}
+}
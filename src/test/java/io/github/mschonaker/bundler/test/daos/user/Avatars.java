@@ -0,0 +1,23 @@
+package io.github.mschonaker.bundler.test.daos.user;
+
+public class Avatars {
+
+	private Avatar alpha;
+	private Avatar beta;
+
+	public Avatar getAlpha() {
+		return alpha;
+	}
+
+	public void setAlpha(Avatar alpha) {
+		this.alpha = alpha;
+	}
+
+	public Avatar getBeta() {
+		return beta;
+	}
+
+	public void setBeta(Avatar beta) {
+		this.beta = beta;
+	}
+}
@@ -9,6 +9,7 @@ import static org.junit.Assert.assertTrue;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintWriter;
+import java.util.Arrays;
 import java.util.List;
 
 import javax.sql.DataSource;
@@ -65,6 +66,19 @@ public class BasicTest {
 		}
 	}
 
+	@Test
+	public void testMaxRows() throws Exception {
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+
+			List<User> users = service.getFirstUsers();
+			assertEquals(1, users.size());
+			assertEquals("alpha", users.get(0).getUsername());
+
+			assertEquals(1, service.getFirstUsers().size());
+		}
+	}
+
 	@Test
 	public void testTotalUsers() throws Exception {
 		try (Transaction tx = Bundler.readTransaction(ds)) {
@@ -74,6 +88,16 @@ public class BasicTest {
 		}
 	}
 
+	@Test
+	public void testQueryWithIterableParameter() throws Exception {
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+
+			// Shaped as a batch, but not declared one.
+			assertEquals(Arrays.asList("Alpha User", "Beta User"), service.getRealnames(Arrays.asList("alpha", "beta")));
+		}
+	}
+
 	@Test
 	public void testAllAvailableRoles() throws Exception {
 
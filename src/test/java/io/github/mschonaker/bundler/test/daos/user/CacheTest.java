@@ -0,0 +1,180 @@
+package io.github.mschonaker.bundler.test.daos.user;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.github.mschonaker.bundler.Bundler;
+import io.github.mschonaker.bundler.BundlerSQLException;
+import io.github.mschonaker.bundler.Config;
+import io.github.mschonaker.bundler.Execution;
+import io.github.mschonaker.bundler.Transaction;
+
+public class CacheTest {
+
+	private DataSource ds;
+	private UserService service;
+	private final List<Execution> executions = new ArrayList<>();
+
+	@Before
+	public void before() throws Exception {
+
+		JdbcDataSource dataSource = new JdbcDataSource();
+
+		dataSource.setURL("jdbc:h2:mem:sampledb" + System.nanoTime() + ";DB_CLOSE_DELAY=-1;MODE=MySQL");
+		dataSource.setUser("sa");
+		dataSource.setPassword("");
+
+		ds = dataSource;
+
+		service = Bundler.inflate(UserService.class, new Config().listener(executions::add));
+		try (Transaction tx = Bundler.writeTransaction(dataSource)) {
+			service.createTables();
+			tx.success();
+		}
+
+		executions.clear();
+	}
+
+	@Test
+	public void testHit() {
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+			assertEquals(Arrays.asList("admin", "user"), service.getCachedRoles("alpha"));
+			assertEquals(Arrays.asList("admin", "user"), service.getCachedRoles("alpha"));
+			assertEquals(Arrays.asList("user"), service.getCachedRoles("beta"));
+		}
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+			assertEquals(Arrays.asList("admin", "user"), service.getCachedRoles("alpha"));
+		}
+
+		assertEquals(2, executions.size());
+	}
+
+	@Test
+	public void testStreamsNotCached() {
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+			service.getCachedUser("alpha");
+			fail();
+		} catch (BundlerSQLException e) {
+			assertTrue(e.getCause() instanceof IllegalArgumentException);
+		}
+	}
+
+	@Test
+	public void testCommitInvalidates() {
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+			assertEquals(Arrays.asList("user"), service.getCachedRoles("beta"));
+		}
+
+		try (Transaction tx = Bundler.writeTransaction(ds)) {
+			service.addRole("beta", "guest");
+			tx.success();
+		}
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+			assertEquals(Arrays.asList("guest", "user"), service.getCachedRoles("beta"));
+			assertEquals(Arrays.asList("guest", "user"), service.getCachedRoles("beta"));
+		}
+
+		assertEquals(3, executions.size());
+	}
+
+	@Test
+	public void testRollbackDoesNotInvalidate() {
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+			assertEquals(Arrays.asList("user"), service.getCachedRoles("beta"));
+		}
+
+		try (Transaction tx = Bundler.writeTransaction(ds)) {
+			service.addRole("beta", "guest");
+		}
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+			assertEquals(Arrays.asList("user"), service.getCachedRoles("beta"));
+		}
+
+		assertEquals(2, executions.size());
+	}
+
+	@Test
+	public void testBypassedAfterWriting() {
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+			assertEquals(Arrays.asList("user"), service.getCachedRoles("beta"));
+		}
+
+		try (Transaction tx = Bundler.writeTransaction(ds)) {
+			service.addRole("beta", "guest");
+			assertEquals(Arrays.asList("guest", "user"), service.getCachedRoles("beta"));
+		}
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+			assertEquals(Arrays.asList("user"), service.getCachedRoles("beta"));
+		}
+
+		assertEquals(3, executions.size());
+	}
+
+	@Test
+	public void testExpiry() throws Exception {
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+			service.getCachedRolesBriefly("alpha");
+			Thread.sleep(5);
+			service.getCachedRolesBriefly("alpha");
+		}
+
+		assertEquals(2, executions.size());
+	}
+
+	@Test
+	public void testPerConfig() throws Exception {
+
+		UserService other = Bundler.inflate(UserService.class, new Config().listener(executions::add));
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+			assertEquals(Arrays.asList("user"), service.getCachedRoles("beta"));
+			assertEquals(Arrays.asList("user"), other.getCachedRoles("beta"));
+			assertEquals(Arrays.asList("user"), other.getCachedRoles("beta"));
+		}
+
+		assertEquals(2, executions.size());
+	}
+
+	@Test
+	public void testNotCachedAfterConcurrentCommit() {
+
+		try (Transaction reader = Bundler.readTransaction(ds)) {
+
+			// Committed after the reader started: its snapshot may predate it.
+			try (Transaction writer = Bundler.writeTransaction(ds)) {
+				service.addRole("beta", "guest");
+				writer.success();
+			}
+
+			service.getCachedRoles("beta");
+		}
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+			assertEquals(Arrays.asList("guest", "user"), service.getCachedRoles("beta"));
+			assertEquals(Arrays.asList("guest", "user"), service.getCachedRoles("beta"));
+		}
+
+		assertEquals(3, executions.size());
+	}
+}
@@ -0,0 +1,130 @@
+package io.github.mschonaker.bundler.test.daos.user;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import io.github.mschonaker.bundler.Bundler;
+import io.github.mschonaker.bundler.BundlerSQLException;
+import io.github.mschonaker.bundler.Config;
+import io.github.mschonaker.bundler.Transaction;
+
+public class FutureTest {
+
+	private static DataSource ds;
+	private static ExecutorService executor;
+
+	@BeforeClass
+	public static void beforeClass() throws Exception {
+
+		JdbcDataSource dataSource = new JdbcDataSource();
+
+		dataSource.setURL("jdbc:h2:mem:sampledb" + System.nanoTime() + ";DB_CLOSE_DELAY=-1;MODE=MySQL");
+		dataSource.setUser("sa");
+		dataSource.setPassword("");
+
+		ds = dataSource;
+
+		try (Transaction tx = Bundler.writeTransaction(dataSource)) {
+			Bundler.inflate(UserService.class).createTables();
+			tx.success();
+		}
+
+		executor = Executors.newFixedThreadPool(2);
+	}
+
+	@AfterClass
+	public static void afterClass() {
+		executor.shutdown();
+	}
+
+	@Test
+	public void testDefaultExecutor() throws Exception {
+
+		UserService service = Bundler.inflate(UserService.class, new Config().dataSource(ds));
+
+		List<User> users = service.getAllUsersAsync().get(10, TimeUnit.SECONDS);
+
+		assertEquals(2, users.size());
+		assertEquals("alpha", users.get(0).getUsername());
+
+		assertEquals("Beta User", service.getUserAsync("beta").get(10, TimeUnit.SECONDS).getRealname());
+		assertNull(service.getUserAsync("gamma").get(10, TimeUnit.SECONDS));
+		assertEquals(Long.valueOf(2), service.countUsersAsync().get(10, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testConfiguredExecutor() throws Exception {
+
+		AtomicReference<Thread> thread = new AtomicReference<>();
+
+		UserService service = Bundler.inflate(UserService.class, new Config().dataSource(ds).executor(task -> {
+			executor.execute(() -> {
+				thread.set(Thread.currentThread());
+				task.run();
+			});
+		}));
+
+		assertEquals(Long.valueOf(2), service.countUsersAsync().get(10, TimeUnit.SECONDS));
+		assertNotEquals(Thread.currentThread(), thread.get());
+	}
+
+	@Test
+	public void testOwnTransaction() throws Exception {
+
+		UserService service = Bundler.inflate(UserService.class, new Config().dataSource(ds));
+
+		// Doesn't need, nor join, the transaction of the calling thread.
+		assertEquals(Long.valueOf(2), service.countUsersAsync().get(10, TimeUnit.SECONDS));
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+			CompletableFuture<List<User>> users = service.getAllUsersAsync();
+			assertEquals(2, service.getAllUsers().size());
+			assertEquals(2, users.get(10, TimeUnit.SECONDS).size());
+		}
+	}
+
+	@Test
+	public void testFailure() throws Exception {
+
+		UserService service = Bundler.inflate(UserService.class, new Config().dataSource(ds));
+
+		try {
+			service.illegalSyntaxAsync().get(10, TimeUnit.SECONDS);
+			fail();
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof BundlerSQLException);
+		}
+	}
+
+	@Test
+	public void testNoDataSource() throws Exception {
+
+		UserService service = Bundler.inflate(UserService.class);
+
+		try {
+			service.countUsersAsync().get(10, TimeUnit.SECONDS);
+			fail();
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof BundlerSQLException);
+			assertTrue(e.getCause().getCause() instanceof IllegalStateException);
+		}
+	}
+}
@@ -0,0 +1,117 @@
+package io.github.mschonaker.bundler.test.daos.user;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import io.github.mschonaker.bundler.Bundler;
+import io.github.mschonaker.bundler.Config;
+import io.github.mschonaker.bundler.Transaction;
+
+public class JoinTest {
+
+	private static DataSource ds;
+	private static UserService service;
+
+	@BeforeClass
+	public static void beforeClass() throws Exception {
+
+		JdbcDataSource dataSource = new JdbcDataSource();
+
+		dataSource.setURL("jdbc:h2:mem:sampledb" + System.nanoTime() + ";DB_CLOSE_DELAY=-1;MODE=MySQL");
+		dataSource.setUser("sa");
+		dataSource.setPassword("");
+
+		ds = dataSource;
+
+		service = Bundler.inflate(UserService.class);
+		try (Transaction tx = Bundler.writeTransaction(dataSource)) {
+			service.createTables();
+			tx.success();
+		}
+	}
+
+	@Test
+	public void testOneToMany() {
+
+		try (Transaction tx = Bundler.writeTransaction(ds)) {
+
+			service.insertUser(new User("gamma", "gamma pass", "Gamma User", null, null));
+
+			List<User> users = service.getAllUsersWithRoles();
+
+			assertEquals(3, users.size());
+			assertEquals(Arrays.asList("admin", "user"), users.get(0).getRoles());
+			assertEquals(Arrays.asList("user"), users.get(1).getRoles());
+			assertNotNull(users.get(2).getRoles());
+			assertTrue(users.get(2).getRoles().isEmpty());
+		}
+	}
+
+	@Test
+	public void testOneToOne() {
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+
+			List<User> users = service.getAllUsersWithPreferences();
+
+			assertEquals(2, users.size());
+			assertTrue(users.get(0).getPreferences().isA());
+			assertTrue(users.get(0).getPreferences().getB());
+			assertFalse(users.get(1).getPreferences().isA());
+			assertFalse(users.get(1).getPreferences().getB());
+		}
+	}
+
+	@Test
+	public void testSingleParent() {
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+
+			User user = service.getUserWithRolesBatched("alpha");
+			assertEquals(2, user.getRoles().size());
+			assertTrue(user.getRoles().contains("admin"));
+			assertTrue(user.getRoles().contains("user"));
+		}
+	}
+
+	@Test
+	public void testSingleExecution() throws Exception {
+
+		Config config = new Config().statementCacheSize(4);
+		UserService service = Bundler.inflate(UserService.class, config);
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+			assertEquals(2, service.getAllUsersWithRoles().size());
+		}
+
+		// One for the users, one for all of their roles.
+		assertEquals(2, config.statementCacheMisses());
+		assertEquals(0, config.statementCacheHits());
+	}
+
+	@Test
+	public void testStrict() throws Exception {
+
+		UserService strict = Bundler.inflate(UserService.class, new Config().strict());
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+
+			// Preferences have no username: the join column isn't theirs.
+			List<User> users = strict.getAllUsersWithPreferences();
+
+			assertEquals(2, users.size());
+			assertTrue(users.get(0).getPreferences().isA());
+		}
+	}
+}
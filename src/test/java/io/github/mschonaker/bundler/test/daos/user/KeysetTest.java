@@ -0,0 +1,140 @@
+package io.github.mschonaker.bundler.test.daos.user;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import io.github.mschonaker.bundler.Bundler;
+import io.github.mschonaker.bundler.BundlerSQLException;
+import io.github.mschonaker.bundler.Page;
+import io.github.mschonaker.bundler.Transaction;
+
+public class KeysetTest {
+
+	private static DataSource ds;
+	private static UserService service;
+
+	@BeforeClass
+	public static void beforeClass() throws Exception {
+
+		JdbcDataSource dataSource = new JdbcDataSource();
+
+		dataSource.setURL("jdbc:h2:mem:sampledb" + System.nanoTime() + ";DB_CLOSE_DELAY=-1;MODE=MySQL");
+		dataSource.setUser("sa");
+		dataSource.setPassword("");
+
+		ds = dataSource;
+
+		service = Bundler.inflate(UserService.class);
+		try (Transaction tx = Bundler.writeTransaction(dataSource)) {
+
+			service.createTables();
+
+			// alpha and beta are "Alpha User" and "Beta User".
+			for (String username : Arrays.asList("gamma", "delta", "epsilon")) {
+				User user = new User();
+				user.setUsername(username);
+				user.setPassword(username);
+				user.setRealname(username.equals("gamma") ? "Alpha User" : "Beta User");
+				service.insertUser(user);
+			}
+
+			tx.success();
+		}
+	}
+
+	@Test
+	public void testPages() {
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+
+			List<String> usernames = new ArrayList<>();
+			List<Integer> sizes = new ArrayList<>();
+
+			String next = null;
+			do {
+				Page<User> page = service.getUsersAfter(next, 2);
+				page.getItems().forEach(user -> usernames.add(user.getUsername()));
+				sizes.add(page.getItems().size());
+				next = page.getNext();
+			} while (next != null);
+
+			assertEquals(Arrays.asList("alpha", "beta", "delta", "epsilon", "gamma"), usernames);
+			assertEquals(Arrays.asList(2, 2, 1), sizes);
+		}
+	}
+
+	@Test
+	public void testQualified() {
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+
+			Page<User> page = service.getUsersAfterQualified(null, 2);
+			assertEquals("beta", page.getItems().get(1).getUsername());
+
+			page = service.getUsersAfterQualified(page.getNext(), 2);
+			assertEquals("delta", page.getItems().get(0).getUsername());
+		}
+	}
+
+	@Test
+	public void testCompositeDescending() {
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+
+			List<String> usernames = new ArrayList<>();
+
+			String next = null;
+			do {
+				Page<String> page = service.getUsernamesByRealnameAfter(next, 2);
+				usernames.addAll(page.getItems());
+				next = page.getNext();
+			} while (next != null);
+
+			assertEquals(Arrays.asList("beta", "delta", "epsilon", "alpha", "gamma"), usernames);
+		}
+	}
+
+	@Test
+	public void testUnsized() {
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+
+			Page<User> page = service.getUsersAfterUnsized(null);
+			assertEquals(2, page.getItems().size());
+
+			page = service.getUsersAfterUnsized(page.getNext());
+			page = service.getUsersAfterUnsized(page.getNext());
+			assertEquals(1, page.getItems().size());
+			assertTrue(page.hasNext());
+
+			page = service.getUsersAfterUnsized(page.getNext());
+			assertTrue(page.getItems().isEmpty());
+			assertFalse(page.hasNext());
+			assertNull(page.getNext());
+		}
+	}
+
+	@Test
+	public void testInvalidToken() {
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+			service.getUsersAfter("not a token", 2);
+			fail();
+		} catch (BundlerSQLException e) {
+			assertTrue(e.getCause() instanceof IllegalArgumentException);
+		}
+	}
+}
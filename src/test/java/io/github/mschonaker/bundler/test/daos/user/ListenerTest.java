@@ -0,0 +1,167 @@
+package io.github.mschonaker.bundler.test.daos.user;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import io.github.mschonaker.bundler.Bundler;
+import io.github.mschonaker.bundler.Config;
+import io.github.mschonaker.bundler.Execution;
+import io.github.mschonaker.bundler.Transaction;
+
+public class ListenerTest {
+
+	private static DataSource ds;
+	private static UserService service;
+	private static final List<Execution> executions = new ArrayList<>();
+
+	@BeforeClass
+	public static void beforeClass() throws Exception {
+
+		JdbcDataSource dataSource = new JdbcDataSource();
+
+		dataSource.setURL("jdbc:h2:mem:sampledb" + System.nanoTime() + ";DB_CLOSE_DELAY=-1;MODE=MySQL");
+		dataSource.setUser("sa");
+		dataSource.setPassword("");
+
+		ds = dataSource;
+
+		service = Bundler.inflate(UserService.class, new Config().loadResource(UserService.class).listener(executions::add));
+		try (Transaction tx = Bundler.writeTransaction(dataSource)) {
+			service.createTables();
+			tx.success();
+		}
+	}
+
+	@Before
+	public void before() {
+		executions.clear();
+	}
+
+	@Test
+	public void testChildren() {
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+			service.getUserWithRoles("alpha");
+		}
+
+		// Children are reported first, as they finish first.
+		assertEquals(2, executions.size());
+
+		Execution roles = executions.get(0);
+		assertEquals("getUserWithRoles.roles", roles.getPath());
+		assertEquals("getRoles", roles.getMethod().getName());
+		assertEquals(2, roles.getRows());
+		assertEquals(1, roles.getParameterCount());
+
+		Execution user = executions.get(1);
+		assertEquals("getUserWithRoles", user.getPath());
+		assertEquals("getUserWithRoles", user.getMethod().getName());
+		assertEquals(1, user.getRows());
+		assertEquals(-1, user.getUpdateCount());
+		assertNull(user.getFailure());
+
+		long phases = 0;
+		for (Execution.Phase phase : Execution.Phase.values())
+			phases += user.getNanos(phase);
+
+		assertTrue(user.getNanos(Execution.Phase.CHILDREN) >= roles.getTotalNanos());
+		assertTrue(phases <= user.getTotalNanos());
+	}
+
+	@Test
+	public void testBatchedChildren() {
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+			service.getAllUsersWithRoles();
+		}
+
+		assertEquals(2, executions.size());
+		assertEquals("getAllUsersWithRoles.roles", executions.get(0).getPath());
+		assertEquals(3, executions.get(0).getRows());
+		assertEquals(2, executions.get(1).getRows());
+	}
+
+	@Test
+	public void testUpdate() {
+
+		User user = new User();
+		user.setUsername("listener");
+		user.setPassword("listener");
+		user.setRealname("Listener");
+
+		try (Transaction tx = Bundler.writeTransaction(ds)) {
+			service.insertUser(user);
+			service.deleteUser("listener");
+		}
+
+		assertEquals(2, executions.size());
+		assertEquals(1, executions.get(0).getUpdateCount());
+		assertEquals(-1, executions.get(0).getGeneratedKeys());
+	}
+
+	@Test
+	public void testStream() {
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+			try (Stream<User> users = service.streamUsers()) {
+				assertEquals(2, users.collect(Collectors.toList()).size());
+			}
+		}
+
+		assertEquals(1, executions.size());
+		assertEquals(2, executions.get(0).getRows());
+	}
+
+	@Test
+	public void testFailure() {
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+			service.illegalSyntax2();
+			fail();
+		} catch (RuntimeException e) {
+			// Expected.
+		}
+
+		assertEquals(1, executions.size());
+		assertNotNull(executions.get(0).getFailure());
+	}
+
+	@Test
+	public void testFailingListener() throws Exception {
+
+		UserService failing = Bundler.inflate(UserService.class, new Config().loadResource(UserService.class)
+				.listener(execution -> {
+					throw new IllegalStateException();
+				}).listener(executions::add));
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+			assertEquals(2, failing.getAllUsers().size());
+		}
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+			failing.illegalSyntax2();
+			fail();
+		} catch (IllegalStateException e) {
+			fail();
+		} catch (RuntimeException e) {
+			// The failure of the statement, not that of the listener.
+		}
+
+		assertEquals(2, executions.size());
+	}
+}
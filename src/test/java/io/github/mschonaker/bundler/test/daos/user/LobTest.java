@@ -0,0 +1,221 @@
+package io.github.mschonaker.bundler.test.daos.user;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.sql.Blob;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import io.github.mschonaker.bundler.Bundler;
+import io.github.mschonaker.bundler.Config;
+import io.github.mschonaker.bundler.Transaction;
+
+public class LobTest {
+
+	private static DataSource ds;
+	private static UserService service;
+
+	@BeforeClass
+	public static void beforeClass() throws Exception {
+
+		JdbcDataSource dataSource = new JdbcDataSource();
+
+		dataSource.setURL("jdbc:h2:mem:sampledb" + System.nanoTime() + ";DB_CLOSE_DELAY=-1;MODE=MySQL");
+		dataSource.setUser("sa");
+		dataSource.setPassword("");
+
+		ds = dataSource;
+
+		service = Bundler.inflate(UserService.class);
+		try (Transaction tx = Bundler.writeTransaction(dataSource)) {
+			service.createTables();
+			tx.success();
+		}
+	}
+
+	private static byte[] document(int size) {
+		byte[] bytes = new byte[size];
+		new Random(size).nextBytes(bytes);
+		return bytes;
+	}
+
+	@Test
+	public void testBytes() throws Exception {
+
+		byte[] document = document(1 << 20);
+
+		try (Transaction tx = Bundler.writeTransaction(ds)) {
+			service.setAvatar("alpha", document);
+			tx.success();
+		}
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+
+			Avatar avatar = service.getAvatar("alpha");
+			assertEquals(document.length, avatar.getBlob().length());
+			assertArrayEquals(document, read(avatar.getAvatar()));
+		}
+	}
+
+	@Test
+	public void testStream() throws Exception {
+
+		byte[] document = document(300 * 1024);
+
+		// Of unknown length.
+		try (Transaction tx = Bundler.writeTransaction(ds)) {
+			service.setAvatar("beta", new FilterInputStream(new ByteArrayInputStream(document)) {
+			});
+			tx.success();
+		}
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+			try (InputStream in = service.getUser("beta").getAvatar()) {
+				assertArrayEquals(document, read(in));
+			}
+		}
+	}
+
+	@Test
+	public void testNull() throws Exception {
+
+		try (Transaction tx = Bundler.writeTransaction(ds)) {
+			service.setAvatar("alpha", null);
+			Avatar avatar = service.getAvatar("alpha");
+			assertNull(avatar.getAvatar());
+			assertNull(avatar.getBlob());
+		}
+	}
+
+	@Test
+	public void testFreed() throws Exception {
+
+		Blob blob;
+
+		try (Transaction tx = Bundler.writeTransaction(ds)) {
+			service.setAvatar("alpha", document(1024));
+			blob = service.getAvatar("alpha").getBlob();
+			assertEquals(1024, blob.length());
+		}
+
+		try {
+			blob.length();
+			fail();
+		} catch (SQLException e) {
+			// Expected.
+		}
+	}
+
+	@Test
+	public void testFreedPerRow() throws Exception {
+
+		try (Transaction tx = Bundler.writeTransaction(ds)) {
+
+			service.setAvatar("alpha", document(1024));
+			service.setAvatar("beta", document(2048));
+
+			Iterator<Avatar> avatars = service.iterateAvatars();
+
+			Blob first = avatars.next().getBlob();
+			assertEquals(1024, first.length());
+
+			Blob second = avatars.next().getBlob();
+			assertEquals(2048, second.length());
+
+			// Freed when the cursor moved on.
+			try {
+				first.length();
+				fail();
+			} catch (SQLException e) {
+				// Expected.
+			}
+
+			assertFalse(avatars.hasNext());
+		}
+	}
+
+	@Test
+	public void testAsynchronous() throws Exception {
+
+		byte[] document = document(4096);
+
+		try (Transaction tx = Bundler.writeTransaction(ds)) {
+			service.setAvatar("alpha", document);
+			tx.success();
+		}
+
+		UserService async = Bundler.inflate(UserService.class, new Config().dataSource(ds));
+
+		// Read eagerly, as the transaction ends before the future completes.
+		Avatar avatar = async.getAvatarAsync("alpha").get(10, TimeUnit.SECONDS);
+		assertArrayEquals(document, read(avatar.getAvatar()));
+		assertEquals(document.length, avatar.getBlob().length());
+	}
+
+	@Test
+	public void testParallel() throws Exception {
+
+		byte[] alpha = document(1024);
+		byte[] beta = document(2048);
+
+		try (Transaction tx = Bundler.writeTransaction(ds)) {
+			service.setAvatar("alpha", alpha);
+			service.setAvatar("beta", beta);
+			tx.success();
+		}
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+
+			// Read eagerly, as each child has its own transaction.
+			Avatars avatars = service.getAvatarsParallel();
+			assertArrayEquals(alpha, read(avatars.getAlpha().getAvatar()));
+			assertArrayEquals(beta, read(avatars.getBeta().getAvatar()));
+			assertEquals(beta.length, avatars.getBeta().getBlob().length());
+		}
+	}
+
+	private static byte[] read(ReadableByteChannel channel) throws IOException {
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ByteBuffer buffer = ByteBuffer.allocate(8192);
+
+		while (channel.read(buffer) >= 0) {
+			buffer.flip();
+			out.write(buffer.array(), 0, buffer.limit());
+			buffer.clear();
+		}
+
+		channel.close();
+
+		return out.toByteArray();
+	}
+
+	private static byte[] read(InputStream in) throws IOException {
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		for (int read; (read = in.read(buffer)) >= 0;)
+			out.write(buffer, 0, read);
+
+		return out.toByteArray();
+	}
+}
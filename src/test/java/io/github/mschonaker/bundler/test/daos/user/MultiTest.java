@@ -0,0 +1,188 @@
+package io.github.mschonaker.bundler.test.daos.user;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import io.github.mschonaker.bundler.Bundler;
+import io.github.mschonaker.bundler.Transaction;
+
+public class MultiTest {
+
+	private static JdbcDataSource h2;
+	private static UserService service;
+
+	private static final AtomicInteger prepared = new AtomicInteger();
+
+	@BeforeClass
+	public static void beforeClass() throws Exception {
+
+		h2 = new JdbcDataSource();
+
+		h2.setURL("jdbc:h2:mem:sampledb" + System.nanoTime() + ";DB_CLOSE_DELAY=-1;MODE=MySQL");
+		h2.setUser("sa");
+		h2.setPassword("");
+
+		service = Bundler.inflate(UserService.class);
+		try (Transaction tx = Bundler.writeTransaction(h2)) {
+			service.createTables();
+			tx.success();
+		}
+	}
+
+	@Before
+	public void before() {
+		prepared.set(0);
+	}
+
+	@Test
+	public void testSingleStatement() {
+
+		try (Transaction tx = Bundler.readTransaction(multi(h2))) {
+
+			UserPage page = service.getUserPageMulti(1, 1, "alpha");
+			assertEquals(1, page.getList().size());
+			assertEquals("beta", page.getList().get(0).getUsername());
+			assertEquals((Long) 1L, page.getCount());
+		}
+
+		assertEquals(1, prepared.get());
+	}
+
+	@Test
+	public void testFallback() {
+
+		// H2 doesn't support multiple result sets.
+		try (Transaction tx = Bundler.readTransaction(h2)) {
+
+			UserPage page = service.getUserPageMulti(0, 1, "beta");
+			assertEquals(1, page.getList().size());
+			assertEquals("alpha", page.getList().get(0).getUsername());
+			assertEquals((Long) 1L, page.getCount());
+		}
+	}
+
+	@Test
+	public void testKeysetChild() {
+
+		try (Transaction tx = Bundler.readTransaction(multi(h2))) {
+
+			UserFeed feed = service.getUserFeedMulti(null, 1);
+			assertEquals(1, feed.getUsers().getItems().size());
+			assertEquals("alpha", feed.getUsers().getItems().get(0).getUsername());
+			assertTrue(feed.getUsers().hasNext());
+			assertEquals((Long) 2L, feed.getCount());
+		}
+
+		// The page, with its placeholder expanded, on its own.
+		assertEquals(2, prepared.get());
+	}
+
+	// ---------------------------------------------------------------------
+	// A driver returning multiple result sets, executing each statement of
+	// the SQL separately on H2.
+
+	private static DataSource multi(DataSource ds) {
+		return proxy(DataSource.class, (method, args) -> {
+			if (method.getName().equals("getConnection"))
+				return connection((Connection) method.invoke(ds, args));
+			return method.invoke(ds, args);
+		});
+	}
+
+	private static Connection connection(Connection connection) {
+		return proxy(Connection.class, (method, args) -> {
+
+			if (method.getName().equals("getMetaData"))
+				return proxy(DatabaseMetaData.class, (m, a) -> m
+						.getName().equals("supportsMultipleResultSets") ? true : m.invoke(connection.getMetaData(), a));
+
+			if (method.getName().equals("prepareStatement")) {
+				prepared.incrementAndGet();
+				return statement(connection, (String) args[0]);
+			}
+
+			return method.invoke(connection, args);
+		});
+	}
+
+	private static PreparedStatement statement(Connection connection, String sql) throws Exception {
+
+		List<PreparedStatement> statements = new ArrayList<>();
+		List<Integer> offsets = new ArrayList<>();
+
+		int offset = 0;
+		for (String part : sql.split(";\n")) {
+			statements.add(connection.prepareStatement(part));
+			offsets.add(offset);
+			offset += part.length() - part.replace("?", "").length();
+		}
+
+		List<ResultSet> results = new ArrayList<>();
+		int[] current = { 0 };
+
+		return proxy(PreparedStatement.class, (method, args) -> {
+			switch (method.getName()) {
+			case "setObject":
+				int index = (Integer) args[0];
+				for (int i = statements.size() - 1; i >= 0; i--)
+					if (index > offsets.get(i)) {
+						statements.get(i).setObject(index - offsets.get(i), args[1]);
+						break;
+					}
+				return null;
+			case "execute":
+				for (PreparedStatement ps : statements)
+					results.add(ps.executeQuery());
+				return true;
+			case "getResultSet":
+				return results.get(current[0]);
+			case "getMoreResults":
+				results.get(current[0]++).close();
+				return current[0] < results.size();
+			case "getUpdateCount":
+				return -1;
+			case "close":
+				for (PreparedStatement ps : statements)
+					ps.close();
+				return null;
+			default:
+				return method.invoke(statements.get(0), args);
+			}
+		});
+	}
+
+	private interface Handler {
+
+		Object invoke(Method method, Object[] args) throws Exception;
+
+	}
+
+	private static <T> T proxy(Class<T> type, Handler handler) {
+		return type.cast(Proxy.newProxyInstance(MultiTest.class.getClassLoader(), new Class<?>[] { type },
+				(proxy, method, args) -> {
+					try {
+						return handler.invoke(method, args);
+					} catch (InvocationTargetException e) {
+						throw e.getCause();
+					}
+				}));
+	}
+}
@@ -0,0 +1,114 @@
+package io.github.mschonaker.bundler.test.daos.user;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import io.github.mschonaker.bundler.Bundler;
+import io.github.mschonaker.bundler.BundlerSQLException;
+import io.github.mschonaker.bundler.Config;
+import io.github.mschonaker.bundler.Transaction;
+
+public class ParallelTest {
+
+	private static DataSource ds;
+	private static UserService service;
+	private static ExecutorService executor;
+	private static final List<Thread> threads = Collections.synchronizedList(new ArrayList<>());
+
+	@BeforeClass
+	public static void beforeClass() throws Exception {
+
+		JdbcDataSource dataSource = new JdbcDataSource();
+
+		dataSource.setURL("jdbc:h2:mem:sampledb" + System.nanoTime() + ";DB_CLOSE_DELAY=-1;MODE=MySQL");
+		dataSource.setUser("sa");
+		dataSource.setPassword("");
+
+		ds = dataSource;
+
+		executor = Executors.newFixedThreadPool(2);
+
+		service = Bundler.inflate(UserService.class,
+				new Config().executor(executor).listener(execution -> threads.add(Thread.currentThread())));
+		try (Transaction tx = Bundler.writeTransaction(dataSource)) {
+			service.createTables();
+			tx.success();
+		}
+	}
+
+	@AfterClass
+	public static void afterClass() {
+		executor.shutdown();
+	}
+
+	@Before
+	public void before() {
+		threads.clear();
+	}
+
+	@Test
+	public void testParallel() {
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+
+			UserPage page = service.getUserPageParallel(1, 1);
+			assertNotNull(page);
+			assertEquals((Long) 2L, page.getCount());
+			assertEquals(1, page.getList().size());
+			assertEquals("beta", page.getList().get(0).getUsername());
+
+			// The children, the first one maybe on this thread, and then the parent.
+			assertEquals(3, threads.size());
+			assertEquals(Thread.currentThread(), threads.get(2));
+
+			// The transaction is still usable.
+			assertEquals((Long) 2L, service.countUsers());
+		}
+	}
+
+	@Test
+	public void testFailure() {
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+			service.getUserPageParallelBroken();
+			fail();
+		} catch (BundlerSQLException e) {
+			// Expected.
+		}
+	}
+
+	@Test
+	public void testFromExecutorThread() throws Exception {
+
+		// The only thread completes the method, and can't wait for the children.
+		ExecutorService single = Executors.newFixedThreadPool(1);
+
+		try {
+
+			UserService service = Bundler.inflate(UserService.class, new Config().executor(single).dataSource(ds));
+
+			UserPage page = service.getUserPageParallelAsync(0, 1).get(10, TimeUnit.SECONDS);
+			assertEquals((Long) 2L, page.getCount());
+			assertEquals("alpha", page.getList().get(0).getUsername());
+
+		} finally {
+			single.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package io.github.mschonaker.bundler.test.daos.user;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import io.github.mschonaker.bundler.Bundler;
+import io.github.mschonaker.bundler.BundlerSQLException;
+import io.github.mschonaker.bundler.Config;
+import io.github.mschonaker.bundler.Transaction;
+import io.github.mschonaker.bundler.utils.Coercions;
+
+public class PrimitiveTest {
+
+	private static DataSource ds;
+	private static UserService service;
+
+	@BeforeClass
+	public static void beforeClass() throws Exception {
+
+		JdbcDataSource dataSource = new JdbcDataSource();
+
+		dataSource.setURL("jdbc:h2:mem:sampledb" + System.nanoTime() + ";DB_CLOSE_DELAY=-1;MODE=MySQL");
+		dataSource.setUser("sa");
+		dataSource.setPassword("");
+
+		ds = dataSource;
+
+		service = Bundler.inflate(UserService.class);
+		try (Transaction tx = Bundler.writeTransaction(dataSource)) {
+			service.createTables();
+			tx.success();
+		}
+	}
+
+	@Test
+	public void testPrimitives() {
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+
+			UserStats stats = service.getUserStats("alpha");
+
+			assertEquals("alpha", stats.getUsername());
+			assertEquals(2L, stats.getRoles());
+			assertEquals("Alpha User".length(), stats.getLength());
+			assertEquals((double) "alpha pass".length() / "Alpha User".length(), stats.getRatio(), 0);
+			assertTrue(stats.isAnonymous());
+
+			stats = service.getUserStats("beta");
+
+			assertEquals(1L, stats.getRoles());
+			assertTrue(stats.isAnonymous());
+		}
+
+		try (Transaction tx = Bundler.writeTransaction(ds)) {
+
+			service.setAvatar("beta", new byte[] { 1 });
+			assertFalse(service.getUserStats("beta").isAnonymous());
+		}
+	}
+
+	@Test
+	public void testNullIntoPrimitive() {
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+
+			UserStats stats = service.getUserStatsWithNulls("alpha");
+
+			assertEquals("alpha", stats.getUsername());
+			assertEquals(0, stats.getLength());
+		}
+	}
+
+	@Test
+	public void testNullIntoPrimitiveStrict() throws Exception {
+
+		UserService strict = Bundler.inflate(UserService.class, new Config().strict());
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+			strict.getUserStatsWithNulls("alpha");
+			fail();
+		} catch (BundlerSQLException e) {
+			assertTrue(e.getCause() instanceof IllegalArgumentException);
+		}
+	}
+
+	@Test
+	public void testRegisteredCoercer() throws Exception {
+
+		Coercions coercions = new Coercions(Coercions.JRE).add(Long.class, long.class, (o, t) -> o + 100);
+		UserService coerced = Bundler.inflate(UserService.class, new Config().coercions(coercions));
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+			assertEquals(102L, coerced.getUserStats("alpha").getRoles());
+		}
+	}
+}
@@ -0,0 +1,138 @@
+package io.github.mschonaker.bundler.test.daos.user;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import io.github.mschonaker.bundler.Bundler;
+import io.github.mschonaker.bundler.Transaction;
+
+public class PropagationTest {
+
+	private static DataSource ds;
+	private static UserService service;
+	private static ExecutorService executor;
+
+	@BeforeClass
+	public static void beforeClass() throws Exception {
+
+		JdbcDataSource dataSource = new JdbcDataSource();
+
+		dataSource.setURL("jdbc:h2:mem:sampledb" + System.nanoTime() + ";DB_CLOSE_DELAY=-1;MODE=MySQL");
+		dataSource.setUser("sa");
+		dataSource.setPassword("");
+
+		ds = dataSource;
+
+		service = Bundler.inflate(UserService.class);
+		try (Transaction tx = Bundler.writeTransaction(dataSource)) {
+			service.createTables();
+			tx.success();
+		}
+
+		executor = Executors.newFixedThreadPool(4);
+	}
+
+	@AfterClass
+	public static void afterClass() {
+		executor.shutdown();
+	}
+
+	@Test
+	public void testNotInherited() throws Exception {
+
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+
+			Thread thread = new Thread(() -> {
+				try {
+					service.getAllUsers();
+				} catch (Throwable t) {
+					failure.set(t);
+				}
+			});
+
+			thread.start();
+			thread.join();
+		}
+
+		assertNotNull(failure.get());
+	}
+
+	@Test
+	public void testWrap() throws Exception {
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+
+			List<Future<Integer>> futures = new ArrayList<>();
+			for (int i = 0; i < 32; i++)
+				futures.add(executor.submit(tx.wrap(() -> service.getAllUsers().size())));
+
+			for (Future<Integer> future : futures)
+				assertEquals(2, future.get().intValue());
+
+			// The transaction is still bound to this thread.
+			assertEquals(2, service.getAllUsers().size());
+		}
+	}
+
+	@Test
+	public void testWrapWrite() throws Exception {
+
+		User user = new User();
+		user.setUsername("wrapped");
+		user.setPassword("wrapped");
+		user.setRealname("Wrapped");
+
+		try (Transaction tx = Bundler.writeTransaction(ds)) {
+			executor.submit(tx.wrap(() -> service.insertUser(user))).get();
+			// Not committed.
+		}
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+			assertEquals(2, service.getAllUsers().size());
+		}
+	}
+
+	@Test
+	public void testOwnTransaction() throws Exception {
+
+		Callable<Integer> task = () -> Bundler.inReadTransaction(ds, () -> service.getAllUsers().size());
+
+		assertEquals(2, executor.submit(task).get().intValue());
+	}
+
+	@Test
+	public void testClosed() throws Exception {
+
+		Runnable task;
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+			task = tx.wrap(() -> {
+				service.getAllUsers();
+			});
+		}
+
+		try {
+			task.run();
+			fail();
+		} catch (IllegalStateException e) {
+			// Expected.
+		}
+	}
+}
@@ -0,0 +1,125 @@
+package io.github.mschonaker.bundler.test.daos.user;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import io.github.mschonaker.bundler.Bundler;
+import io.github.mschonaker.bundler.Config;
+import io.github.mschonaker.bundler.SlowQueryLog;
+import io.github.mschonaker.bundler.Transaction;
+
+public class SlowQueryLogTest {
+
+	private static DataSource ds;
+
+	@BeforeClass
+	public static void beforeClass() throws Exception {
+
+		JdbcDataSource dataSource = new JdbcDataSource();
+
+		dataSource.setURL("jdbc:h2:mem:sampledb" + System.nanoTime() + ";DB_CLOSE_DELAY=-1;MODE=MySQL");
+		dataSource.setUser("sa");
+		dataSource.setPassword("");
+
+		ds = dataSource;
+
+		try (Transaction tx = Bundler.writeTransaction(dataSource)) {
+			Bundler.inflate(UserService.class).createTables();
+			tx.success();
+		}
+	}
+
+	private static Logger logger(List<String> messages) {
+
+		Logger logger = Logger.getAnonymousLogger();
+		logger.setUseParentHandlers(false);
+		logger.addHandler(new Handler() {
+
+			@Override
+			public void publish(LogRecord record) {
+				messages.add(record.getMessage());
+			}
+
+			@Override
+			public void flush() {
+			}
+
+			@Override
+			public void close() {
+			}
+		});
+
+		return logger;
+	}
+
+	@Test
+	public void testLog() throws Exception {
+
+		List<String> messages = new ArrayList<>();
+
+		UserService service = Bundler.inflate(UserService.class,
+				new Config().loadResource(UserService.class).listener(new SlowQueryLog(0).logger(logger(messages))));
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+			service.getUser("alpha");
+			// Its threshold is a minute.
+			service.countUsers();
+		}
+
+		assertEquals(1, messages.size());
+
+		String message = messages.get(0);
+		assertTrue(message, message.startsWith("Slow bundle getUser: "));
+		assertTrue(message, message.contains("1 rows"));
+		assertTrue(message, message.contains("sql: select * from users where username = ?"));
+		assertTrue(message, message.contains("values: ['alpha']"));
+		assertTrue(message, message.contains("execute "));
+	}
+
+	@Test
+	public void testRateLimit() throws Exception {
+
+		List<String> messages = new ArrayList<>();
+
+		UserService service = Bundler.inflate(UserService.class, new Config().loadResource(UserService.class)
+				.listener(new SlowQueryLog(0).maxPerSecond(1).logger(logger(messages))));
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+			for (int i = 0; i < 10; i++)
+				service.getUser("alpha");
+		}
+
+		// One per second, in case the second changed in between.
+		assertTrue(messages.size() >= 1);
+		assertTrue(messages.size() <= 2);
+	}
+
+	@Test
+	public void testSampling() throws Exception {
+
+		List<String> messages = new ArrayList<>();
+
+		UserService service = Bundler.inflate(UserService.class, new Config().loadResource(UserService.class)
+				.listener(new SlowQueryLog(0).sampleRate(0.5).logger(logger(messages))));
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+			for (int i = 0; i < 200; i++)
+				service.getUser("alpha");
+		}
+
+		assertTrue(messages.size() > 0);
+		assertTrue(messages.size() < 200);
+	}
+}
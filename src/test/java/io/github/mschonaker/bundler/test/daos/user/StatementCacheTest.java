@@ -0,0 +1,116 @@
+package io.github.mschonaker.bundler.test.daos.user;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import io.github.mschonaker.bundler.Bundler;
+import io.github.mschonaker.bundler.Config;
+import io.github.mschonaker.bundler.Transaction;
+
+public class StatementCacheTest {
+
+	private static DataSource ds;
+
+	@BeforeClass
+	public static void beforeClass() throws Exception {
+
+		JdbcDataSource dataSource = new JdbcDataSource();
+
+		dataSource.setURL("jdbc:h2:mem:sampledb" + System.nanoTime() + ";DB_CLOSE_DELAY=-1;MODE=MySQL");
+		dataSource.setUser("sa");
+		dataSource.setPassword("");
+
+		ds = dataSource;
+
+		UserService service = Bundler.inflate(UserService.class);
+		try (Transaction tx = Bundler.writeTransaction(dataSource)) {
+			service.createTables();
+			tx.success();
+		}
+	}
+
+	@Test
+	public void testHits() throws Exception {
+
+		Config config = new Config().statementCacheSize(4);
+		UserService service = Bundler.inflate(UserService.class, config);
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+
+			assertEquals("alpha", service.getUser("alpha").getUsername());
+			assertEquals("beta", service.getUser("beta").getUsername());
+			assertEquals((Long) 2L, service.countUsers());
+			assertEquals((Long) 2L, service.countUsers());
+		}
+
+		assertEquals(2, config.statementCacheMisses());
+		assertEquals(2, config.statementCacheHits());
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+			assertEquals((Long) 2L, service.countUsers());
+		}
+
+		// The cache lives with the transaction.
+		assertEquals(3, config.statementCacheMisses());
+	}
+
+	@Test
+	public void testChildren() throws Exception {
+
+		Config config = new Config().statementCacheSize(4);
+		UserService service = Bundler.inflate(UserService.class, config);
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+
+			User user = service.getUserWithRoles("alpha");
+			assertNotNull(user.getRoles());
+			assertTrue(user.getRoles().contains("admin"));
+
+			user = service.getUserWithRoles("beta");
+			assertTrue(user.getRoles().contains("user"));
+		}
+
+		assertEquals(2, config.statementCacheMisses());
+		assertEquals(2, config.statementCacheHits());
+	}
+
+	@Test
+	public void testEviction() throws Exception {
+
+		Config config = new Config().statementCacheSize(1);
+		UserService service = Bundler.inflate(UserService.class, config);
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+
+			assertEquals((Long) 2L, service.countUsers());
+			assertEquals("alpha", service.getUser("alpha").getUsername());
+			assertEquals((Long) 2L, service.countUsers());
+		}
+
+		assertEquals(3, config.statementCacheMisses());
+		assertEquals(0, config.statementCacheHits());
+	}
+
+	@Test
+	public void testTuningIsReset() throws Exception {
+
+		Config config = new Config().statementCacheSize(4);
+		UserService service = Bundler.inflate(UserService.class, config);
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+
+			// Same SQL, with and without max rows.
+			assertEquals(1, service.getFirstUsers().size());
+			assertEquals(2, service.getAllUsers().size());
+		}
+
+		assertEquals(1, config.statementCacheHits());
+	}
+}
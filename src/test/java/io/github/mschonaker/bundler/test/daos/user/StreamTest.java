@@ -0,0 +1,111 @@
+package io.github.mschonaker.bundler.test.daos.user;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import io.github.mschonaker.bundler.Bundler;
+import io.github.mschonaker.bundler.Transaction;
+
+public class StreamTest {
+
+	private static DataSource ds;
+	private static UserService service;
+
+	@BeforeClass
+	public static void beforeClass() throws Exception {
+
+		JdbcDataSource dataSource = new JdbcDataSource();
+
+		dataSource.setURL("jdbc:h2:mem:sampledb" + System.nanoTime() + ";DB_CLOSE_DELAY=-1;MODE=MySQL");
+		dataSource.setUser("sa");
+		dataSource.setPassword("");
+
+		ds = dataSource;
+
+		service = Bundler.inflate(UserService.class);
+		try (Transaction tx = Bundler.writeTransaction(dataSource)) {
+			service.createTables();
+			tx.success();
+		}
+	}
+
+	@Test
+	public void testStream() {
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+
+			try (Stream<User> users = service.streamUsers()) {
+				assertEquals(Arrays.asList("alpha", "beta"),
+						users.map(User::getUsername).collect(Collectors.toList()));
+			}
+		}
+	}
+
+	@Test
+	public void testStreamWithChildren() {
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+
+			try (Stream<User> users = service.streamUsersWithRoles()) {
+				List<List<String>> roles = users.map(User::getRoles).collect(Collectors.toList());
+				assertEquals(Arrays.asList(Arrays.asList("admin", "user"), Arrays.asList("user")), roles);
+			}
+		}
+	}
+
+	@Test
+	public void testIterator() {
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+
+			Iterator<String> roles = service.iterateRoles();
+			assertTrue(roles.hasNext());
+			assertEquals("admin", roles.next());
+			assertEquals("user", roles.next());
+			assertFalse(roles.hasNext());
+		}
+	}
+
+	@Test
+	public void testConsumer() {
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+
+			List<String> usernames = new LinkedList<>();
+			service.exportUsers(user -> usernames.add(user.getUsername()));
+
+			assertEquals(Arrays.asList("alpha", "beta"), usernames);
+		}
+	}
+
+	@Test
+	public void testClosedByTransaction() {
+
+		Iterator<String> roles;
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+			roles = service.iterateRoles();
+			assertEquals("admin", roles.next());
+		}
+
+		try {
+			roles.hasNext();
+			fail();
+		} catch (IllegalStateException e) {
+		}
+	}
+}
@@ -0,0 +1,26 @@
+package io.github.mschonaker.bundler.test.daos.user;
+
+import io.github.mschonaker.bundler.Page;
+
+public class UserFeed {
+
+	private Page<User> users;
+
+	private Long count;
+
+	public Page<User> getUsers() {
+		return users;
+	}
+
+	public void setUsers(Page<User> users) {
+		this.users = users;
+	}
+
+	public Long getCount() {
+		return count;
+	}
+
+	public void setCount(Long count) {
+		this.count = count;
+	}
+}
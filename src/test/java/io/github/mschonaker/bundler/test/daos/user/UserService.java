@@ -1,7 +1,13 @@
 package io.github.mschonaker.bundler.test.daos.user;
 
 import java.sql.SQLException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import io.github.mschonaker.bundler.Page;
 
 public interface UserService {
 
@@ -19,6 +25,8 @@ public interface UserService {
 
 	Long countUsers();
 
+	List<String> getRealnames(List<String> usernames);
+
 	List<String> getUserRoles(String username);
 
 	void insertUser(User user);
@@ -33,6 +41,8 @@ public interface UserService {
 
 	void illegalSyntax2();
 
+	void invalid();
+
 	User getUserWithSubSubBean(String username);
 
 	User getUserWithNonexistentProperty();
@@ -43,4 +53,76 @@ public interface UserService {
 
 	User getUserWithPreferencesHybrid(String username);
 
+	List<User> getAllUsersWithRoles();
+
+	List<User> getAllUsersWithPreferences();
+
+	User getUserWithRolesBatched(String username);
+
+	Stream<User> streamUsers();
+
+	List<User> getFirstUsers();
+
+	Stream<User> streamUsersWithRoles();
+
+	Iterator<String> iterateRoles();
+
+	void exportUsers(Consumer<User> consumer);
+
+	int[] getPreferenceFlags();
+
+	long[] getRoleCounts();
+
+	int[] getRoleCountsOf(List<String> usernames);
+
+	double[] getRoleRatios();
+
+	CompletableFuture<List<User>> getAllUsersAsync();
+
+	CompletableFuture<User> getUserAsync(String username);
+
+	CompletableFuture<Long> countUsersAsync();
+
+	CompletableFuture<Void> illegalSyntaxAsync();
+
+	List<String> getCachedRoles(String username);
+
+	List<String> getCachedRolesBriefly(String username);
+
+	User getCachedUser(String username);
+
+	void addRole(String username, String rolename);
+
+	UserPage getUserPageParallel(int offset, int limit);
+
+	UserPage getUserPageParallelBroken();
+
+	CompletableFuture<UserPage> getUserPageParallelAsync(int offset, int limit);
+
+	UserPage getUserPageMulti(int offset, int limit, String excluded);
+
+	UserFeed getUserFeedMulti(String after, int size);
+
+	Page<User> getUsersAfter(String after, int size);
+
+	Page<User> getUsersAfterQualified(String after, int size);
+
+	Page<String> getUsernamesByRealnameAfter(String after, int size);
+
+	Page<User> getUsersAfterUnsized(String after);
+
+	void setAvatar(String username, Object avatar);
+
+	Avatar getAvatar(String username);
+
+	Iterator<Avatar> iterateAvatars();
+
+	CompletableFuture<Avatar> getAvatarAsync(String username);
+
+	Avatars getAvatarsParallel();
+
+	UserStats getUserStats(String username);
+
+	UserStats getUserStatsWithNulls(String username);
+
 }
@@ -0,0 +1,50 @@
+package io.github.mschonaker.bundler.test.daos.user;
+
+public class UserStats {
+
+	private String username;
+	private long roles;
+	private int length;
+	private double ratio;
+	private boolean anonymous;
+
+	public String getUsername() {
+		return username;
+	}
+
+	public void setUsername(String username) {
+		this.username = username;
+	}
+
+	public long getRoles() {
+		return roles;
+	}
+
+	public void setRoles(long roles) {
+		this.roles = roles;
+	}
+
+	public int getLength() {
+		return length;
+	}
+
+	public void setLength(int length) {
+		this.length = length;
+	}
+
+	public double getRatio() {
+		return ratio;
+	}
+
+	public void setRatio(double ratio) {
+		this.ratio = ratio;
+	}
+
+	public boolean isAnonymous() {
+		return anonymous;
+	}
+
+	public void setAnonymous(boolean anonymous) {
+		this.anonymous = anonymous;
+	}
+}
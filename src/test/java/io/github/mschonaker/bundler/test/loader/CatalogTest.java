@@ -0,0 +1,185 @@
+package io.github.mschonaker.bundler.test.loader;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.Test;
+
+import io.github.mschonaker.bundler.Bundler;
+import io.github.mschonaker.bundler.Transaction;
+import io.github.mschonaker.bundler.loader.Bundle;
+import io.github.mschonaker.bundler.loader.BundleCatalog;
+import io.github.mschonaker.bundler.loader.BundleLoader;
+
+public class CatalogTest {
+
+	private static final String RESOURCE = "io/github/mschonaker/bundler/test/daos/user/UserService-bundler.xml";
+
+	@Test
+	public void testRoundTrip() throws Exception {
+
+		Map<String, Bundle> bundles = new HashMap<>();
+		try (Reader reader = new InputStreamReader(getClass().getClassLoader().getResourceAsStream(RESOURCE), "UTF-8")) {
+			BundleLoader.load(bundles, reader);
+		}
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		BundleCatalog.write(bundles, 0, out);
+
+		Map<String, Bundle> read = new HashMap<>();
+		assertTrue(BundleCatalog.read(read, ByteBuffer.wrap(out.toByteArray())));
+
+		assertEquals(bundles.keySet(), read.keySet());
+		for (String name : bundles.keySet())
+			assertSame(bundles.get(name), read.get(name));
+	}
+
+	@Test
+	public void testCompile() throws Exception {
+
+		Path dir = Files.createTempDirectory("catalog");
+		Path xml = dir.resolve("Dao-bundler.xml");
+		Files.write(xml, "<bundler><find fetchSize='auto' maxRows='5'>select * from a where b = ${param}</find></bundler>"
+				.getBytes("UTF-8"));
+
+		BundleCatalog.main(new String[] { dir.toString() });
+
+		Path bin = dir.resolve("Dao-bundler.bin");
+		assertTrue(Files.exists(bin));
+
+		Map<String, Bundle> read = new HashMap<>();
+		assertTrue(BundleCatalog.read(read, ByteBuffer.wrap(Files.readAllBytes(bin))));
+
+		Bundle find = read.get("find");
+		assertNotNull(find);
+		assertEquals("select * from a where b = ?", find.sql);
+		assertEquals(Bundle.Kind.QUERY, find.kind);
+		assertTrue(find.adaptiveFetchSize);
+		assertEquals(5, find.maxRows);
+		assertEquals("param", find.parameters[0].source);
+
+		Files.delete(bin);
+		Files.delete(xml);
+		Files.delete(dir);
+	}
+
+	@Test
+	public void testOtherVersion() throws Exception {
+
+		Map<String, Bundle> bundles = new HashMap<>();
+		BundleLoader.load(bundles, new StringReader("<bundler><a>select 1</a></bundler>"));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		BundleCatalog.write(bundles, 0, out);
+
+		ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+		buffer.putInt(4, Integer.MAX_VALUE);
+
+		Map<String, Bundle> read = new HashMap<>();
+		assertFalse(BundleCatalog.read(read, buffer));
+		assertTrue(read.isEmpty());
+	}
+
+	@Test
+	public void testCorrupted() throws Exception {
+
+		Map<String, Bundle> bundles = new HashMap<>();
+		BundleLoader.load(bundles, new StringReader("<bundler><a>select 1</a></bundler>"));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		BundleCatalog.write(bundles, 0, out);
+		byte[] bytes = out.toByteArray();
+
+		Map<String, Bundle> read = new HashMap<>();
+		assertFalse(BundleCatalog.read(read, ByteBuffer.wrap("not a catalog".getBytes("UTF-8"))));
+		assertFalse(BundleCatalog.read(read, ByteBuffer.wrap(Arrays.copyOf(bytes, bytes.length - 4))));
+		assertFalse(BundleCatalog.read(read, ByteBuffer.wrap(bytes), 1));
+		assertTrue(read.isEmpty());
+
+		assertTrue(BundleCatalog.read(read, ByteBuffer.wrap(bytes), 0));
+	}
+
+	@Test
+	public void testFallbackToXml() throws Exception {
+
+		JdbcDataSource ds = new JdbcDataSource();
+		ds.setURL("jdbc:h2:mem:sampledb" + System.nanoTime() + ";DB_CLOSE_DELAY=-1;MODE=MySQL");
+		ds.setUser("sa");
+		ds.setPassword("");
+
+		// Compiled from another XML.
+		Map<String, Bundle> bundles = new HashMap<>();
+		BundleLoader.load(bundles, new StringReader("<bundler><one>select 2</one></bundler>"));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		BundleCatalog.write(bundles, BundleCatalog.checksum("<bundler><one>select 2</one></bundler>".getBytes("UTF-8")), out);
+		Path stale = catalogOf(StaleCatalogDao.class);
+		Files.write(stale, out.toByteArray());
+
+		// Truncated.
+		Path corrupt = catalogOf(CorruptCatalogDao.class);
+		Files.write(corrupt, Arrays.copyOf(out.toByteArray(), 12));
+
+		try (Transaction tx = Bundler.readTransaction(ds)) {
+			assertEquals((Integer) 1, Bundler.inflate(StaleCatalogDao.class).one());
+			assertEquals((Integer) 1, Bundler.inflate(CorruptCatalogDao.class).one());
+		} finally {
+			Files.delete(stale);
+			Files.delete(corrupt);
+		}
+	}
+
+	private static Path catalogOf(Class<?> type) throws Exception {
+		String name = type.getName().replace('.', '/') + "-bundler";
+		Path xml = Paths.get(type.getClassLoader().getResource(name + ".xml").toURI());
+		return xml.resolveSibling(xml.getFileName().toString().replace(".xml", BundleCatalog.EXTENSION));
+	}
+
+	private static void assertSame(Bundle expected, Bundle actual) {
+
+		assertEquals(expected.name, actual.name);
+		assertEquals(expected.path, actual.path);
+		assertEquals(expected.sql, actual.sql);
+		assertEquals(expected.kind, actual.kind);
+		assertEquals(expected.expressions, actual.expressions);
+		assertArrayEquals(expected.placeholders, actual.placeholders);
+		assertEquals(expected.joinProperty, actual.joinProperty);
+		assertEquals(expected.joinColumn, actual.joinColumn);
+		assertEquals(expected.batch, actual.batch);
+		assertEquals(expected.fetchSize, actual.fetchSize);
+		assertEquals(expected.adaptiveFetchSize, actual.adaptiveFetchSize);
+		assertEquals(expected.maxRows, actual.maxRows);
+		assertEquals(expected.slowThreshold, actual.slowThreshold);
+		assertEquals(expected.parallel, actual.parallel);
+		assertEquals(expected.multi, actual.multi);
+		assertEquals(String.valueOf(expected.keyset), String.valueOf(actual.keyset));
+		assertEquals(String.valueOf(expected.after), String.valueOf(actual.after));
+		assertEquals(String.valueOf(expected.pageSize), String.valueOf(actual.pageSize));
+		assertEquals(expected.cacheSize, actual.cacheSize);
+		assertEquals(expected.cacheTtl, actual.cacheTtl);
+		assertArrayEquals(expected.tables, actual.tables);
+		assertArrayEquals(expected.invalidates, actual.invalidates);
+
+		assertEquals(expected.children == null, actual.children == null);
+		if (expected.children != null) {
+			assertEquals(expected.children.keySet(), actual.children.keySet());
+			for (String name : expected.children.keySet())
+				assertSame(expected.children.get(name), actual.children.get(name));
+		}
+	}
+}
@@ -0,0 +1,46 @@
+package io.github.mschonaker.bundler.test.loader;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+import io.github.mschonaker.bundler.loader.Bundle;
+import io.github.mschonaker.bundler.loader.BundleLoader;
+
+public class ClassifyTest {
+
+	@Test
+	public void testClassify() {
+
+		assertEquals(Bundle.Kind.QUERY, BundleLoader.classify("SELECT 1"));
+		assertEquals(Bundle.Kind.QUERY, BundleLoader.classify("  (select 1) union (select 2)"));
+		assertEquals(Bundle.Kind.QUERY, BundleLoader.classify("-- comment\n/* another */ select 1"));
+
+		assertEquals(Bundle.Kind.UPDATE, BundleLoader.classify("insert into a values (1)"));
+		assertEquals(Bundle.Kind.UPDATE, BundleLoader.classify("\n\tUPDATE a SET b = 1"));
+		assertEquals(Bundle.Kind.UPDATE, BundleLoader.classify("create table a (b int)"));
+
+		assertEquals(Bundle.Kind.UNKNOWN, BundleLoader.classify("with a as (select 1) select * from a"));
+		assertEquals(Bundle.Kind.UNKNOWN, BundleLoader.classify("call f()"));
+		assertEquals(Bundle.Kind.UNKNOWN, BundleLoader.classify("insert into a values (1) returning b"));
+		assertEquals(Bundle.Kind.UNKNOWN, BundleLoader.classify("/* unterminated"));
+	}
+
+	@Test
+	public void testLoad() throws Exception {
+
+		String a = "<bundler><query>select * from a where b = ${param}</query>"
+				+ "<update>delete from a where b = ${param}</update><none><sub>select 1</sub></none></bundler>";
+
+		Map<String, Bundle> bundles = new HashMap<>();
+		BundleLoader.load(bundles, new StringReader(a));
+
+		assertEquals(Bundle.Kind.QUERY, bundles.get("query").kind);
+		assertEquals(Bundle.Kind.UPDATE, bundles.get("update").kind);
+		assertEquals(Bundle.Kind.QUERY, bundles.get("none").children.get("sub").kind);
+	}
+}
@@ -0,0 +1,57 @@
+package io.github.mschonaker.bundler.test.loader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Test;
+
+import io.github.mschonaker.bundler.loader.Expression;
+import io.github.mschonaker.bundler.test.daos.user.User;
+
+public class ExpressionTest {
+
+	@Test
+	public void testRoots() {
+
+		Object[] params = new Object[] { "a", "b" };
+
+		assertEquals("a", Expression.compile("param").evaluate(params, "a", null));
+		assertEquals("b", Expression.compile("params[1]").evaluate(params, "a", null));
+		assertEquals("c", Expression.compile(" parent ").evaluate(params, "a", "c"));
+		assertNull(Expression.compile("params[2]").evaluate(params, "a", null));
+	}
+
+	@Test
+	public void testProperties() {
+
+		User user = new User("alpha", "secret", "Alpha User", null, null);
+		Object[] params = new Object[] { user };
+
+		assertEquals("alpha", Expression.compile("param.username").evaluate(params, user, null));
+		assertEquals("secret", Expression.compile("params[0].password").evaluate(params, user, null));
+		assertEquals("Alpha User", Expression.compile("parent.realname").evaluate(null, null, user));
+		assertNull(Expression.compile("parent.realname").evaluate(null, null, null));
+	}
+
+	@Test
+	public void testCollections() {
+
+		Object[] params = new Object[] { Arrays.asList("x", "y"), Collections.singletonMap("key", "value") };
+
+		assertEquals("y", Expression.compile("param[1]").evaluate(params, params[0], null));
+		assertEquals("value", Expression.compile("params[1].key").evaluate(params, params[0], null));
+	}
+
+	@Test
+	public void testFallback() {
+
+		Object[] params = new Object[] { 3, 4 };
+
+		assertEquals(7L, Expression.compile("params[0] + params[1]").evaluate(params, 3, null));
+		assertEquals("3", Expression.compile("param.toString()").evaluate(params, 3, null));
+		assertEquals("value", Expression.compile("'value'").evaluate(params, 3, null));
+	}
+}
@@ -0,0 +1,83 @@
+package io.github.mschonaker.bundler.test.loader;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.xml.sax.SAXException;
+
+import io.github.mschonaker.bundler.loader.Bundle;
+import io.github.mschonaker.bundler.loader.BundleLoader;
+
+public class LoaderAttributesTest {
+
+	@Test
+	public void testFetch() throws Exception {
+
+		String a = "<bundler><fixed fetchSize='100' maxRows='10'>SELECT 1</fixed>"
+				+ "<auto fetchSize='auto'>SELECT 2</auto><none>SELECT 3</none></bundler>";
+
+		Map<String, Bundle> bundles = new HashMap<>();
+		BundleLoader.load(bundles, new StringReader(a));
+
+		Bundle fixed = bundles.get("fixed");
+		assertEquals(100, fixed.fetchSize);
+		assertEquals(10, fixed.maxRows);
+		assertFalse(fixed.adaptiveFetchSize);
+		assertEquals(100, fixed.fetchSizeHint());
+
+		Bundle auto = bundles.get("auto");
+		assertTrue(auto.adaptiveFetchSize);
+		assertEquals(0, auto.fetchSizeHint());
+		auto.recordRows(100);
+		assertEquals(101, auto.fetchSizeHint());
+		auto.recordRows(20);
+		assertEquals(80, auto.estimatedRows);
+
+		Bundle none = bundles.get("none");
+		none.recordRows(100);
+		assertEquals(0, none.fetchSizeHint());
+		assertEquals(0, none.maxRows);
+	}
+
+	@Test
+	public void testJoin() throws Exception {
+
+		String a = "<bundler><parent>SELECT 1<same join='id'>SELECT 2</same>"
+				+ "<different join=' id = parent_id '>SELECT 3 WHERE x IN (${keys})</different></parent></bundler>";
+
+		Map<String, Bundle> bundles = new HashMap<>();
+		BundleLoader.load(bundles, new StringReader(a));
+
+		Bundle parent = bundles.get("parent");
+		assertNull(parent.joinProperty);
+
+		Bundle same = parent.children.get("same");
+		assertEquals("id", same.joinProperty);
+		assertEquals("id", same.joinColumn);
+
+		Bundle different = parent.children.get("different");
+		assertEquals("id", different.joinProperty);
+		assertEquals("parent_id", different.joinColumn);
+		assertEquals("SELECT 3 WHERE x IN (?)", different.sql);
+		assertTrue(different.parameters[0].isKeys());
+		assertEquals('?', different.sql.charAt(different.placeholders[0]));
+	}
+
+	@Test(expected = SAXException.class)
+	public void testJoinWithParent() throws Exception {
+		BundleLoader.load(new HashMap<>(), new StringReader(
+				"<bundler><a>SELECT 1<b join='id'>SELECT 2 WHERE x IN (${keys}) AND y = ${parent.y}</b></a></bundler>"));
+	}
+
+	@Test(expected = Exception.class)
+	public void testInvalid() throws Exception {
+		BundleLoader.load(new HashMap<>(), new StringReader("<bundler><a maxRows='x'>SELECT 1</a></bundler>"));
+	}
+}
@@ -0,0 +1,6 @@
+package io.github.mschonaker.bundler.test.loader;
+
+public interface StaleCatalogDao {
+
+	Integer one();
+}